@@ -0,0 +1,64 @@
+package com.pbe;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// Benchmark of writing answers to an AnswerSink
+// Compares picking the bytes to write with a switch, as Main.answer() used to pick the text to print,
+// with letting the answer write its own pre-encoded line through Answer.handle().
+// The sink writes to a channel that discards everything, so only the dispatch and copying are measured.
+public class AnswerOutputBenchmark {
+
+    private static final int ANSWERS = 1 << 20;
+
+    private static final byte[] NO = line("No"), YES = line("Yes"), MAYBE = line("Maybe"),
+            LATER = line("Later"), SOON = line("Soon"), NEVER = line("Never");
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(42);
+        Answer[] answers = new Answer[ANSWERS];
+        for (int i = 0; i < ANSWERS; i++)
+            answers[i] = EnumConstants.ANSWERS.get(random.nextInt(EnumConstants.ANSWERS.size()));
+
+        try (AnswerSink sink = new AnswerSink(Channels.newChannel(OutputStream.nullOutputStream()), 1 << 16)) {
+            Bench.run("switch per answer", ANSWERS, () -> loopSwitch(answers, sink));
+            Bench.run("Answer.handle(sink)", ANSWERS, () -> loopHandle(answers, sink));
+        }
+    }
+
+    static int loopSwitch(Answer[] answers, AnswerSink sink) {
+        try {
+            for (Answer a : answers) {
+                switch (a) {
+                    case NO: sink.write(NO); break;
+                    case YES: sink.write(YES); break;
+                    case MAYBE: sink.write(MAYBE); break;
+                    case LATER: sink.write(LATER); break;
+                    case SOON: sink.write(SOON); break;
+                    case NEVER: sink.write(NEVER); break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return answers.length;
+    }
+
+    static int loopHandle(Answer[] answers, AnswerSink sink) {
+        try {
+            for (Answer a : answers)
+                a.handle(sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return answers.length;
+    }
+
+    private static byte[] line(String label) {
+        return (label + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+    }
+}
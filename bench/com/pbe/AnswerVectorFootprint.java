@@ -0,0 +1,60 @@
+package com.pbe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Measurement of the memory taken by a large number of answers
+// Compares Answer[], ArrayList<Answer> (grown by adding, as it would be in practice) and AnswerVector.
+// Each is measured as the heap in use after a forced garbage collection, minus the heap in use before building it.
+// Usage: AnswerVectorFootprint [answers] (default: 10 000 000)
+public class AnswerVectorFootprint {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+        byte[] ordinals = new byte[count];
+        for (int i = 0; i < count; i++)
+            ordinals[i] = (byte) random.nextInt(EnumConstants.ANSWERS.size());
+
+        long base = usedHeap();
+        Answer[] array = new Answer[count];
+        for (int i = 0; i < count; i++)
+            array[i] = EnumConstants.ANSWERS.get(ordinals[i]);
+        report("Answer[]", usedHeap() - base, count);
+        Bench.sink = array.length;
+        array = null;
+
+        base = usedHeap();
+        List<Answer> list = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            list.add(EnumConstants.ANSWERS.get(ordinals[i]));
+        report("ArrayList<Answer>", usedHeap() - base, count);
+        Bench.sink = list.size();
+        list = null;
+
+        base = usedHeap();
+        AnswerVector vector = new AnswerVector();
+        vector.addAll(ordinals, 0, count);
+        report("AnswerVector", usedHeap() - base, count);
+        Bench.sink = (int) vector.size();
+    }
+
+    private static void report(String name, long bytes, int count) {
+        System.out.printf("  %-26s %,14d bytes  %6.3f bytes/answer%n", name, bytes, (double) bytes / count);
+    }
+
+    // Heap in use, after asking for garbage collection a few times so the figure settles
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
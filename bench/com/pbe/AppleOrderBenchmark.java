@@ -0,0 +1,52 @@
+package com.pbe;
+
+import com.pbe.Main.Apple;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark of sorting records by apple variety
+// Compares List.sort() with the natural order of Apple against AppleOrder's counting sort.
+public class AppleOrderBenchmark {
+
+    private static final int RECORDS = 1 << 20;
+
+    // A record with an apple variety
+    static final class Crate {
+        final Apple apple;
+        final int weight;
+
+        Crate(Apple apple, int weight) {
+            this.apple = apple;
+            this.weight = weight;
+        }
+
+        Apple getApple() {
+            return apple;
+        }
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<Crate> crates = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++)
+            crates.add(new Crate(EnumConstants.APPLES.get(random.nextInt(EnumConstants.APPLES.size())), i));
+
+        Bench.run("List.sort(comparing)", RECORDS, () -> loopComparator(crates));
+        Bench.run("AppleOrder.sort", RECORDS, () -> loopCounting(crates));
+    }
+
+    static int loopComparator(List<Crate> crates) {
+        List<Crate> copy = new ArrayList<>(crates);
+        copy.sort(Comparator.comparing(Crate::getApple));
+        return copy.get(0).weight;
+    }
+
+    static int loopCounting(List<Crate> crates) {
+        List<Crate> copy = new ArrayList<>(crates);
+        AppleOrder.sort(copy, Crate::getApple);
+        return copy.get(0).weight;
+    }
+}
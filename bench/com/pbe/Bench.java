@@ -0,0 +1,71 @@
+package com.pbe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
+
+// Minimal timing harness shared by the benchmarks in this directory
+// There's no benchmark framework in this project, so each case is warmed up first and then timed a number of rounds;
+// results are averages in nanoseconds per operation. Treat small differences with care.
+final class Bench {
+
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 10;
+
+    static volatile int sink; // results end up here, so they count as used
+
+    private Bench() {
+    }
+
+    // Warm up, then time the given loop and print the average time per operation
+    // Give each case its own loop method, so the profile of one doesn't affect how another is compiled
+    static void run(String name, long operations, IntSupplier loop) {
+        for (int r = 0; r < WARMUP_ROUNDS; r++)
+            sink = loop.getAsInt();
+        long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++)
+            sink = loop.getAsInt();
+        double nsPerOp = (double) (System.nanoTime() - start) / (ROUNDS * operations);
+        System.out.printf("  %-26s %6.2f ns/op%n", name, nsPerOp);
+    }
+
+    // Same as above, but with the loop running on the given number of threads at once
+    // The time per operation is the elapsed time divided by the operations of all threads together,
+    // so a case that scales perfectly with threads gets faster as threads are added
+    static void runThreads(String name, int threads, long operationsPerThread, IntSupplier loop) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+                tasks.add(loop::getAsInt);
+            for (int r = 0; r < WARMUP_ROUNDS; r++)
+                sink = runAll(pool, tasks);
+            long start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++)
+                sink = runAll(pool, tasks);
+            double nsPerOp = (double) (System.nanoTime() - start) / (ROUNDS * operationsPerThread * threads);
+            System.out.printf("  %-26s %6.2f ns/op (%d threads)%n", name, nsPerOp, threads);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int runAll(ExecutorService pool, List<Callable<Integer>> tasks) {
+        int result = 0;
+        try {
+            for (Future<Integer> f : pool.invokeAll(tasks))
+                result += f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while benchmarking", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Benchmark failed", e.getCause());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pbe;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+// Load test of DecisionService
+// Sends a number of requests at once, as fast as possible, and reports the latency of each:
+// the time from sending the request until its response arrives.
+// Usage: DecisionLoadTest [requests] [rounds]
+public class DecisionLoadTest {
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        try (DecisionService service = new DecisionService(new Question())) {
+            for (int r = 1; r <= rounds; r++) { // the first rounds double as warm-up
+                long[] latencies = new long[requests];
+                CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+                long start = System.nanoTime();
+                for (int i = 0; i < requests; i++) {
+                    int index = i;
+                    long sent = System.nanoTime();
+                    responses[i] = service.request().thenRun(() -> latencies[index] = System.nanoTime() - sent);
+                }
+                CompletableFuture.allOf(responses).join();
+                long elapsed = System.nanoTime() - start;
+
+                Arrays.sort(latencies);
+                System.out.printf("Round %d: %d requests, %.0f requests/sec, p50 %d us, p99 %d us, p999 %d us%n",
+                        r, requests, requests * 1e9 / elapsed,
+                        percentile(latencies, 0.50) / 1000, percentile(latencies, 0.99) / 1000,
+                        percentile(latencies, 0.999) / 1000);
+            }
+        }
+    }
+
+    // Value below which the given share of the sorted values lies
+    private static long percentile(long[] sorted, double share) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(share * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,138 @@
+package com.pbe;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+// Benchmark of ways to act on an enum constant
+// Kept apart from the examples in src; compile both together and run main().
+//
+// Each way of dispatching is run on three kinds of input:
+// monomorphic - always the same answer, bimorphic - two answers mixed, megamorphic - all six answers mixed.
+// The kind of input decides how many targets the JIT sees at the dispatch site, and with that how well it can inline.
+public class DispatchBenchmark {
+
+    private static final int ANSWERS = 1 << 20;
+
+    // Something to do per answer, so the dispatch can't be optimized away
+    interface Handler {
+        int handle();
+    }
+
+    // The same answers, each with its own method body
+    enum Reply {
+        NO { int handle() { return 2; } },
+        YES { int handle() { return 3; } },
+        MAYBE { int handle() { return 5; } },
+        LATER { int handle() { return 7; } },
+        SOON { int handle() { return 11; } },
+        NEVER { int handle() { return 13; } };
+
+        abstract int handle();
+    }
+
+    private static final Map<Answer, Handler> HANDLER_MAP = new EnumMap<>(Answer.class);
+    private static final Handler[] HANDLERS = new Handler[EnumConstants.ANSWERS.size()];
+
+    static {
+        HANDLER_MAP.put(Answer.NO, () -> 2);
+        HANDLER_MAP.put(Answer.YES, () -> 3);
+        HANDLER_MAP.put(Answer.MAYBE, () -> 5);
+        HANDLER_MAP.put(Answer.LATER, () -> 7);
+        HANDLER_MAP.put(Answer.SOON, () -> 11);
+        HANDLER_MAP.put(Answer.NEVER, () -> 13);
+        for (Map.Entry<Answer, Handler> e : HANDLER_MAP.entrySet())
+            HANDLERS[e.getKey().ordinal()] = e.getValue();
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Answer[][] inputs = new Answer[3][ANSWERS];
+        for (int i = 0; i < ANSWERS; i++) {
+            inputs[0][i] = Answer.YES;
+            inputs[1][i] = random.nextBoolean() ? Answer.YES : Answer.NO;
+            inputs[2][i] = EnumConstants.ANSWERS.get(random.nextInt(EnumConstants.ANSWERS.size()));
+        }
+        String[] profiles = {"monomorphic", "bimorphic", "megamorphic"};
+
+        for (int p = 0; p < inputs.length; p++) {
+            Answer[] answers = inputs[p];
+            Reply[] replies = new Reply[ANSWERS];
+            for (int i = 0; i < ANSWERS; i++)
+                replies[i] = Reply.values()[answers[i].ordinal()];
+
+            System.out.println("Input: " + profiles[p]);
+            Bench.run("switch", ANSWERS, () -> loopSwitch(answers));
+            Bench.run("if/else chain", ANSWERS, () -> loopIfElse(answers));
+            Bench.run("EnumMap<Answer, Handler>", ANSWERS, () -> loopEnumMap(answers));
+            Bench.run("Handler[] by ordinal", ANSWERS, () -> loopHandlerArray(answers));
+            Bench.run("constant-specific body", ANSWERS, () -> loopConstantBody(replies));
+            System.out.println();
+        }
+    }
+
+    // Each way of dispatching gets its own loop, so the profile of one doesn't affect how another is compiled
+
+    static int loopSwitch(Answer[] answers) {
+        int sum = 0;
+        for (Answer a : answers)
+            sum += viaSwitch(a);
+        return sum;
+    }
+
+    static int loopIfElse(Answer[] answers) {
+        int sum = 0;
+        for (Answer a : answers)
+            sum += viaIfElse(a);
+        return sum;
+    }
+
+    static int loopEnumMap(Answer[] answers) {
+        int sum = 0;
+        for (Answer a : answers)
+            sum += HANDLER_MAP.get(a).handle();
+        return sum;
+    }
+
+    static int loopHandlerArray(Answer[] answers) {
+        int sum = 0;
+        for (Answer a : answers)
+            sum += HANDLERS[a.ordinal()].handle();
+        return sum;
+    }
+
+    static int loopConstantBody(Reply[] replies) {
+        int sum = 0;
+        for (Reply r : replies)
+            sum += r.handle();
+        return sum;
+    }
+
+    static int viaSwitch(Answer a) {
+        switch (a) {
+            case NO: return 2;
+            case YES: return 3;
+            case MAYBE: return 5;
+            case LATER: return 7;
+            case SOON: return 11;
+            case NEVER: return 13;
+            default: return 0;
+        }
+    }
+
+    static int viaIfElse(Answer a) {
+        if (a == Answer.NO)
+            return 2;
+        else if (a == Answer.YES)
+            return 3;
+        else if (a == Answer.MAYBE)
+            return 5;
+        else if (a == Answer.LATER)
+            return 7;
+        else if (a == Answer.SOON)
+            return 11;
+        else if (a == Answer.NEVER)
+            return 13;
+        return 0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.pbe;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// Benchmark of sending answers as bytes and reading them back
+// Compares writing each answer's name (and looking it up again with valueOf()) with EnumCodec,
+// both in variable-width and in packed form.
+public class EnumCodecBenchmark {
+
+    private static final int ANSWERS = 1 << 20;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Answer[] answers = new Answer[ANSWERS];
+        for (int i = 0; i < ANSWERS; i++)
+            answers[i] = EnumConstants.ANSWERS.get(random.nextInt(EnumConstants.ANSWERS.size()));
+        Answer[] decoded = new Answer[ANSWERS];
+        ByteBuffer buffer = ByteBuffer.allocate(ANSWERS * 8);
+
+        Bench.run("names + valueOf()", ANSWERS, () -> loopNames(answers, decoded, buffer));
+        Bench.run("EnumCodec variable width", ANSWERS, () -> loopVariable(answers, decoded, buffer));
+        Bench.run("EnumCodec packed", ANSWERS, () -> loopPacked(answers, decoded, buffer));
+    }
+
+    static int loopNames(Answer[] answers, Answer[] decoded, ByteBuffer buffer) {
+        buffer.clear();
+        for (Answer a : answers) {
+            byte[] name = a.toString().getBytes(StandardCharsets.US_ASCII);
+            buffer.put((byte) name.length).put(name);
+        }
+        buffer.flip();
+        for (int i = 0; i < decoded.length; i++) {
+            byte[] name = new byte[buffer.get()];
+            buffer.get(name);
+            decoded[i] = Answer.valueOf(new String(name, StandardCharsets.US_ASCII));
+        }
+        return decoded[decoded.length - 1].ordinal();
+    }
+
+    static int loopVariable(Answer[] answers, Answer[] decoded, ByteBuffer buffer) {
+        buffer.clear();
+        EnumCodec.ANSWER.encode(answers, 0, answers.length, buffer);
+        buffer.flip();
+        EnumCodec.ANSWER.decode(buffer, decoded, 0, decoded.length);
+        return decoded[decoded.length - 1].ordinal();
+    }
+
+    static int loopPacked(Answer[] answers, Answer[] decoded, ByteBuffer buffer) {
+        buffer.clear();
+        EnumCodec.ANSWER.encodePacked(answers, 0, answers.length, buffer);
+        buffer.flip();
+        EnumCodec.ANSWER.decodePacked(buffer, decoded, 0, decoded.length);
+        return decoded[decoded.length - 1].ordinal();
+    }
+}
@@ -0,0 +1,74 @@
+package com.pbe;
+
+import com.pbe.Main.Apple;
+import com.pbe.Main.ErrorCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Benchmark of grouping and counting stream elements by an enum key
+// Compares Collectors.groupingBy() (with and without counting()) against EnumCollectors,
+// for keys of type Answer, Apple and ErrorCode.
+public class EnumCollectorsBenchmark {
+
+    private static final int RECORDS = 1 << 20;
+
+    // A record with a key of each enumeration
+    static final class Outcome {
+        final Answer answer;
+        final Apple apple;
+        final ErrorCode errorCode;
+
+        Outcome(Answer answer, Apple apple, ErrorCode errorCode) {
+            this.answer = answer;
+            this.apple = apple;
+            this.errorCode = errorCode;
+        }
+
+        Answer getAnswer() {
+            return answer;
+        }
+
+        Apple getApple() {
+            return apple;
+        }
+
+        ErrorCode getErrorCode() {
+            return errorCode;
+        }
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<Outcome> outcomes = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++)
+            outcomes.add(new Outcome(EnumConstants.ANSWERS.get(random.nextInt(EnumConstants.ANSWERS.size())),
+                    EnumConstants.APPLES.get(random.nextInt(EnumConstants.APPLES.size())),
+                    EnumConstants.ERROR_CODES.get(random.nextInt(EnumConstants.ERROR_CODES.size()))));
+
+        compare("Answer", outcomes, Answer.class, Outcome::getAnswer);
+        compare("Apple", outcomes, Apple.class, Outcome::getApple);
+        compare("ErrorCode", outcomes, ErrorCode.class, Outcome::getErrorCode);
+    }
+
+    static <E extends Enum<E>> void compare(String name, List<Outcome> outcomes, Class<E> enumClass,
+                                            Function<Outcome, E> key) {
+        System.out.println("Key: " + name);
+        Bench.run("groupingBy", RECORDS,
+                () -> outcomes.stream().collect(Collectors.groupingBy(key)).size());
+        Bench.run("EnumCollectors.groupingBy", RECORDS,
+                () -> outcomes.stream().collect(EnumCollectors.groupingBy(enumClass, key)).size());
+        Bench.run("groupingBy, parallel", RECORDS,
+                () -> outcomes.parallelStream().collect(Collectors.groupingBy(key)).size());
+        Bench.run("EnumCollectors, parallel", RECORDS,
+                () -> outcomes.parallelStream().collect(EnumCollectors.groupingBy(enumClass, key)).size());
+        Bench.run("groupingBy + counting", RECORDS,
+                () -> outcomes.stream().collect(Collectors.groupingBy(key, Collectors.counting())).size());
+        Bench.run("EnumCollectors.counting", RECORDS,
+                () -> outcomes.stream().collect(EnumCollectors.counting(enumClass, key)).length);
+        System.out.println();
+    }
+}
@@ -0,0 +1,79 @@
+package com.pbe;
+
+import com.pbe.Main.ErrorCode;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+// Benchmark of iterating the constants of an enumeration in a tight loop
+// Compares ErrorCode.values(), which returns a new copy of the array on every call, with EnumConstants.
+// Besides the time, the bytes allocated per iteration are measured for the running thread,
+// and the number of garbage collections during the measurement is reported.
+// When the whole loop is compiled and inlined, escape analysis may remove the copies made by values();
+// run with -XX:-DoEscapeAnalysis to see what they cost wherever the JIT can't prove the copy stays local.
+public class EnumConstantsBenchmark {
+
+    private static final int ITERATIONS = 1 << 22;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        byte[] ordinals = new byte[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++)
+            ordinals[i] = (byte) random.nextInt(EnumConstants.ERROR_CODES.size());
+
+        measure("values()", () -> loopValues(ordinals));
+        measure("EnumConstants, by index", () -> loopIndexed(ordinals));
+        measure("EnumConstants, for-each", () -> loopForEach(ordinals));
+    }
+
+    // Each iteration looks up the error code with a given ordinal value by going through all constants
+
+    static int loopValues(byte[] ordinals) {
+        int found = 0;
+        for (byte o : ordinals)
+            for (ErrorCode code : ErrorCode.values())
+                if (code.ordinal() == o)
+                    found += code.name().length();
+        return found;
+    }
+
+    static int loopIndexed(byte[] ordinals) {
+        int found = 0;
+        for (byte o : ordinals)
+            for (int k = 0; k < EnumConstants.ERROR_CODES.size(); k++)
+                if (EnumConstants.ERROR_CODES.get(k).ordinal() == o)
+                    found += EnumConstants.ERROR_CODES.get(k).name().length();
+        return found;
+    }
+
+    static int loopForEach(byte[] ordinals) {
+        int found = 0;
+        for (byte o : ordinals)
+            for (ErrorCode code : EnumConstants.ERROR_CODES)
+                if (code.ordinal() == o)
+                    found += code.name().length();
+        return found;
+    }
+
+    // Time the loop, then run it once more to count the bytes it allocates and the collections it causes
+    private static void measure(String name, IntSupplier loop) {
+        Bench.run(name, ITERATIONS, loop);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long collections = collections();
+        long before = threads.getThreadAllocatedBytes(thread);
+        Bench.sink = loop.getAsInt();
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        System.out.printf("  %-26s %6.2f bytes/iteration, %d GCs%n", "",
+                (double) allocated / ITERATIONS, collections() - collections);
+    }
+
+    private static long collections() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+}
@@ -0,0 +1,55 @@
+package com.pbe;
+
+import com.pbe.Main.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// Benchmark of looking up error codes by name
+// Compares ErrorCode.valueOf() on a new String with EnumDecoder on the raw bytes, for names that exist (hits)
+// and for names that don't (misses). valueOf() throws an IllegalArgumentException on every miss.
+public class EnumDecoderBenchmark {
+
+    private static final int NAMES = 1 << 16;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        String[] unknown = {"Succes", "failed", "Pend", "Unknown", "Timeout"};
+        byte[][] hits = new byte[NAMES][], misses = new byte[NAMES][];
+        for (int i = 0; i < NAMES; i++) {
+            hits[i] = ascii(EnumConstants.ERROR_CODES.get(random.nextInt(EnumConstants.ERROR_CODES.size())).name());
+            misses[i] = ascii(unknown[random.nextInt(unknown.length)]);
+        }
+
+        Bench.run("valueOf(), hits", NAMES, () -> loopValueOf(hits));
+        Bench.run("EnumDecoder, hits", NAMES, () -> loopDecoder(hits));
+        Bench.run("valueOf(), misses", NAMES, () -> loopValueOf(misses));
+        Bench.run("EnumDecoder, misses", NAMES, () -> loopDecoder(misses));
+    }
+
+    static int loopValueOf(byte[][] names) {
+        int found = 0;
+        for (byte[] name : names) {
+            try {
+                found += ErrorCode.valueOf(new String(name, StandardCharsets.US_ASCII)).ordinal() + 1;
+            } catch (IllegalArgumentException e) {
+                // not an error code
+            }
+        }
+        return found;
+    }
+
+    static int loopDecoder(byte[][] names) {
+        int found = 0;
+        for (byte[] name : names) {
+            ErrorCode code = EnumDecoder.errorCode(name, 0, name.length);
+            if (code != null)
+                found += code.ordinal() + 1;
+        }
+        return found;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
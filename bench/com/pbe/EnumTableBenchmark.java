@@ -0,0 +1,65 @@
+package com.pbe;
+
+import com.pbe.Main.Apple;
+import com.pbe.Main.ErrorCode;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark of filtering rows with enum values
+// Compares a loop over a List of objects, reading their fields, with a scan of an EnumTable,
+// for (Failed OR Pending) AND Kanzi AND NOT NEVER.
+// The rows are generated in runs of equal error codes, as logs often are, so some chunks can be skipped.
+public class EnumTableBenchmark {
+
+    private static final int ROWS = 1 << 22;
+
+    // A row as an object
+    static final class Row {
+        final ErrorCode errorCode;
+        final Apple apple;
+        final Answer answer;
+
+        Row(ErrorCode errorCode, Apple apple, Answer answer) {
+            this.errorCode = errorCode;
+            this.apple = apple;
+            this.answer = answer;
+        }
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<Row> list = new ArrayList<>(ROWS);
+        EnumTable table = new EnumTable();
+        EnumTable.Column<ErrorCode> errorCodes = table.addColumn(ErrorCode.class);
+        EnumTable.Column<Apple> apples = table.addColumn(Apple.class);
+        EnumTable.Column<Answer> answers = table.addColumn(Answer.class);
+        ErrorCode errorCode = ErrorCode.Success;
+        for (int i = 0; i < ROWS; i++) {
+            if (random.nextInt(10_000) == 0)
+                errorCode = EnumConstants.ERROR_CODES.get(random.nextInt(EnumConstants.ERROR_CODES.size()));
+            Apple apple = EnumConstants.APPLES.get(random.nextInt(EnumConstants.APPLES.size()));
+            Answer answer = EnumConstants.ANSWERS.get(random.nextInt(EnumConstants.ANSWERS.size()));
+            list.add(new Row(errorCode, apple, answer));
+            table.addRow(errorCode, apple, answer);
+        }
+
+        EnumTable.Condition failedOrPending = errorCodes.in(EnumSet.of(ErrorCode.Failed, ErrorCode.Pending));
+        EnumTable.Condition kanzi = apples.is(Apple.Kanzi);
+        EnumTable.Condition notNever = answers.in(EnumSet.complementOf(EnumSet.of(Answer.NEVER)));
+
+        Bench.run("List<Row> field access", ROWS, () -> loopList(list));
+        Bench.run("EnumTable.count", ROWS, () -> (int) table.count(failedOrPending, kanzi, notNever));
+    }
+
+    static int loopList(List<Row> rows) {
+        int count = 0;
+        for (Row r : rows)
+            if ((r.errorCode == ErrorCode.Failed || r.errorCode == ErrorCode.Pending)
+                    && r.apple == Apple.Kanzi && r.answer != Answer.NEVER)
+                count++;
+        return count;
+    }
+}
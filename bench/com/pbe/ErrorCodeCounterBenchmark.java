@@ -0,0 +1,56 @@
+package com.pbe;
+
+import com.pbe.Main.ErrorCode;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Benchmark of counting error codes from several threads at once
+// Compares ErrorCodeCounter (a LongAdder per error code) with an AtomicLong per error code
+// and with a ConcurrentHashMap<ErrorCode, Long> updated through merge().
+// Usage: ErrorCodeCounterBenchmark [threads] (default: number of processors)
+public class ErrorCodeCounterBenchmark {
+
+    private static final int UPDATES = 1 << 20; // per thread, per round
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        Random random = new Random(42);
+        ErrorCode[] codes = new ErrorCode[UPDATES];
+        for (int i = 0; i < UPDATES; i++)
+            codes[i] = EnumConstants.ERROR_CODES.get(random.nextInt(EnumConstants.ERROR_CODES.size()));
+
+        ErrorCodeCounter counter = new ErrorCodeCounter();
+        AtomicLong[] atomics = new AtomicLong[EnumConstants.ERROR_CODES.size()];
+        for (int i = 0; i < atomics.length; i++)
+            atomics[i] = new AtomicLong();
+        Map<ErrorCode, Long> map = new ConcurrentHashMap<>();
+
+        for (int n = 1; n <= threads; n *= 2) {
+            Bench.runThreads("ErrorCodeCounter", n, UPDATES, () -> loopCounter(codes, counter));
+            Bench.runThreads("AtomicLong[]", n, UPDATES, () -> loopAtomics(codes, atomics));
+            Bench.runThreads("ConcurrentHashMap.merge", n, UPDATES, () -> loopMap(codes, map));
+            System.out.println();
+        }
+    }
+
+    static int loopCounter(ErrorCode[] codes, ErrorCodeCounter counter) {
+        for (ErrorCode code : codes)
+            counter.increment(code);
+        return (int) counter.get(ErrorCode.Success);
+    }
+
+    static int loopAtomics(ErrorCode[] codes, AtomicLong[] atomics) {
+        for (ErrorCode code : codes)
+            atomics[code.ordinal()].incrementAndGet();
+        return (int) atomics[0].get();
+    }
+
+    static int loopMap(ErrorCode[] codes, Map<ErrorCode, Long> map) {
+        for (ErrorCode code : codes)
+            map.merge(code, 1L, Long::sum);
+        return map.size();
+    }
+}
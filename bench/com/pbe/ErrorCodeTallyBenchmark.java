@@ -0,0 +1,41 @@
+package com.pbe;
+
+import com.pbe.Main.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+// Benchmark of counting error code ordinals in bulk
+// Compares ErrorCodeTally with checking each byte against every constant of ErrorCode.values().
+// Usage: ErrorCodeTallyBenchmark [size in MB]... (default: 1 and 64)
+public class ErrorCodeTallyBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{1, 64} : new int[args.length];
+        for (int i = 0; i < args.length; i++)
+            sizes[i] = Integer.parseInt(args[i]);
+
+        Random random = new Random(42);
+        for (int mb : sizes) {
+            byte[] ordinals = new byte[mb << 20];
+            for (int i = 0; i < ordinals.length; i++)
+                ordinals[i] = (byte) random.nextInt(EnumConstants.ERROR_CODES.size());
+            ByteBuffer direct = ByteBuffer.allocateDirect(ordinals.length).put(ordinals).flip();
+
+            System.out.println("Input: " + mb + " MB");
+            Bench.run("for-each over values()", ordinals.length, () -> loopValues(ordinals));
+            Bench.run("ErrorCodeTally byte[]", ordinals.length, () -> (int) ErrorCodeTally.count(ordinals, 0, ordinals.length)[0]);
+            Bench.run("ErrorCodeTally direct", ordinals.length, () -> (int) ErrorCodeTally.count(direct)[0]);
+            System.out.println();
+        }
+    }
+
+    static int loopValues(byte[] ordinals) {
+        long[] counts = new long[ErrorCode.values().length];
+        for (byte b : ordinals)
+            for (ErrorCode code : ErrorCode.values())
+                if (code.ordinal() == b)
+                    counts[code.ordinal()]++;
+        return (int) counts[0];
+    }
+}
@@ -0,0 +1,41 @@
+package com.pbe;
+
+// Benchmark of asking many questions from several threads at once
+// Compares calling ask() one answer at a time on a shared Question, whose java.util.Random all threads contend on,
+// with filling a batch through ask(Answer[]) and ask(byte[]), which use a generator per thread.
+// Usage: QuestionBatchBenchmark [threads] (default: number of processors)
+public class QuestionBatchBenchmark {
+
+    private static final int ANSWERS = 1 << 18; // per thread, per round
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        Question question = new Question();
+
+        for (int n = 1; n <= threads; n *= 2) {
+            Bench.runThreads("ask() on shared Random", n, ANSWERS, () -> loopSingle(question));
+            Bench.runThreads("ask(Answer[])", n, ANSWERS, () -> loopBatch(question));
+            Bench.runThreads("ask(byte[])", n, ANSWERS, () -> loopOrdinals(question));
+            System.out.println();
+        }
+    }
+
+    static int loopSingle(Question question) {
+        int sum = 0;
+        for (int i = 0; i < ANSWERS; i++)
+            sum += question.ask().ordinal();
+        return sum;
+    }
+
+    static int loopBatch(Question question) {
+        Answer[] answers = new Answer[ANSWERS];
+        question.ask(answers);
+        return answers[ANSWERS - 1].ordinal();
+    }
+
+    static int loopOrdinals(Question question) {
+        byte[] ordinals = new byte[ANSWERS];
+        question.ask(ordinals);
+        return ordinals[ANSWERS - 1];
+    }
+}
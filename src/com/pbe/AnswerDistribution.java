@@ -0,0 +1,99 @@
+package com.pbe;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+// Weighted distribution of answers, sampled with an alias table (Vose's method)
+// The table is built once from a weight per Answer. After that, picking an answer takes a single random number
+// and one comparison, no matter how many answers there are.
+class AnswerDistribution {
+
+    // The distribution Question has always used: MAYBE 15%, NO 15%, YES 30% + 23%, LATER 15%, NEVER 2%
+    // Note: SOON is given no weight, so it is never returned
+    static final AnswerDistribution DEFAULT = new AnswerDistribution(defaultWeights());
+
+    private final Answer[] answers = Answer.values();
+    private final double[] probability; // probability of each answer, as given by the weights
+    private final double[] threshold; // chance of keeping the column's own answer instead of its alias
+    private final Answer[] alias; // answer returned when the threshold of a column is not met
+
+    // Constructor - builds the alias table from a weight per answer
+    // Answers missing from the map get no weight
+    AnswerDistribution(Map<Answer, Double> weights) {
+        int n = answers.length;
+        probability = new double[n];
+        threshold = new double[n];
+        alias = new Answer[n];
+
+        double total = 0;
+        for (Map.Entry<Answer, Double> e : weights.entrySet()) {
+            double w = e.getValue();
+            if (w < 0 || Double.isNaN(w) || Double.isInfinite(w))
+                throw new IllegalArgumentException("Invalid weight for " + e.getKey() + ": " + w);
+            probability[e.getKey().ordinal()] = w;
+            total += w;
+        }
+        if (total <= 0)
+            throw new IllegalArgumentException("At least one answer needs a positive weight");
+
+        // Scale each probability so the average column holds exactly 1
+        // Columns below 1 are 'small' and get topped up by a 'large' one
+        double[] scaled = new double[n];
+        int[] small = new int[n], large = new int[n];
+        int smalls = 0, larges = 0;
+        for (int i = 0; i < n; i++) {
+            probability[i] /= total;
+            scaled[i] = probability[i] * n;
+            if (scaled[i] < 1)
+                small[smalls++] = i;
+            else
+                large[larges++] = i;
+        }
+        while (smalls > 0 && larges > 0) {
+            int s = small[--smalls], l = large[--larges];
+            threshold[s] = scaled[s];
+            alias[s] = answers[l];
+            scaled[l] = (scaled[l] + scaled[s]) - 1;
+            if (scaled[l] < 1)
+                small[smalls++] = l;
+            else
+                large[larges++] = l;
+        }
+        // What remains is full up to rounding errors
+        while (larges > 0) {
+            int l = large[--larges];
+            threshold[l] = 1;
+            alias[l] = answers[l];
+        }
+        while (smalls > 0) {
+            int s = small[--smalls];
+            threshold[s] = 1;
+            alias[s] = answers[s];
+        }
+    }
+
+    // Pick an answer
+    // The whole part of the random number selects a column, the fraction decides between the column's answer and its alias
+    Answer sample(RandomGenerator random) {
+        double u = random.nextDouble() * answers.length;
+        int column = (int) u;
+        return (u - column) < threshold[column] ? answers[column] : alias[column];
+    }
+
+    // Getter - the probability of a specific answer
+    double probability(Answer answer) {
+        return probability[answer.ordinal()];
+    }
+
+    private static Map<Answer, Double> defaultWeights() {
+        Map<Answer, Double> weights = new EnumMap<>(Answer.class);
+        weights.put(Answer.MAYBE, 15.0);
+        weights.put(Answer.NO, 15.0);
+        weights.put(Answer.YES, 53.0);
+        weights.put(Answer.LATER, 15.0);
+        weights.put(Answer.SOON, 0.0);
+        weights.put(Answer.NEVER, 2.0);
+        return weights;
+    }
+}
@@ -0,0 +1,233 @@
+package com.pbe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Append-only log of answers in a memory-mapped file, one byte per answer
+// The file starts with a header holding the number of answers and the names of the answers, in the order
+// their numbers were assigned. When reading an older file the numbers are translated back by name,
+// so reordering the constants of Answer doesn't break it.
+//
+// Layout: magic (int), version (int), count (long), header length (int), number of names (byte),
+// then each name as its length (byte) followed by ASCII characters. The answers follow the header.
+//
+// The file is mapped in segments of 64 MB, so it can grow beyond the 2 GB a single mapping allows.
+// The file grows a whole segment at a time while open; the count in the header tells how much of it is in use,
+// and closing cuts the file back to just that.
+// Appending and reading both go straight to the mapped memory, without copying or allocating.
+// Not thread-safe: use one AnswerLog per file, from one thread at a time.
+class AnswerLog implements Closeable, Iterable<Answer> {
+
+    private static final int MAGIC = 0x414E5347; // "ANSG"
+    private static final int VERSION = 1;
+    private static final int COUNT_OFFSET = 8;
+    private static final int HEADER_LENGTH_OFFSET = 16;
+    private static final int NAMES_OFFSET = 20;
+    private static final long SEGMENT_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final long dataStart; // position of the first answer in the file
+    private final Answer[] answerOf; // answer for each number used in the file, null if no longer an Answer
+    private final byte[] numberOf; // number used in the file for each answer, by ordinal value, -1 if not in the file
+    private long count;
+    private boolean closed;
+
+    private AnswerLog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        boolean isNew = channel.size() == 0;
+        if (!isNew)
+            checkHeader(channel); // before mapping, which would grow the file
+
+        MappedByteBuffer header = segment(0);
+        if (isNew)
+            writeHeader(header);
+        count = header.getLong(COUNT_OFFSET);
+        dataStart = header.getInt(HEADER_LENGTH_OFFSET);
+
+        // Match the names in the file to the current constants of Answer
+        int names = header.get(NAMES_OFFSET) & 0xFF;
+        answerOf = new Answer[names];
+        numberOf = new byte[EnumConstants.ANSWERS.size()];
+        Arrays.fill(numberOf, (byte) -1);
+        int pos = NAMES_OFFSET + 1;
+        for (int i = 0; i < names; i++) {
+            byte[] name = new byte[header.get(pos++) & 0xFF];
+            header.get(pos, name);
+            pos += name.length;
+            Answer a = EnumDecoder.answer(name, 0, name.length);
+            answerOf[i] = a;
+            if (a != null)
+                numberOf[a.ordinal()] = (byte) i;
+        }
+    }
+
+    // Open the log in the given file, creating it if it doesn't exist yet
+    static AnswerLog open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new AnswerLog(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Check the header of an existing file: the magic number and version, and that the header fits
+    // in the first segment and the file, its names within the header, and the answers in the file
+    private static void checkHeader(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer start = read(channel, 0, (int) Math.min(fileSize, NAMES_OFFSET + 1));
+        if (start.limit() < 8 || start.getInt(0) != MAGIC)
+            throw new IOException("Not an answer log");
+        if (start.getInt(4) != VERSION)
+            throw new IOException("Unsupported answer log version: " + start.getInt(4));
+        if (start.limit() <= NAMES_OFFSET)
+            throw new IOException("Corrupt answer log: header cut off");
+
+        int headerLength = start.getInt(HEADER_LENGTH_OFFSET);
+        if (headerLength <= NAMES_OFFSET || headerLength > Math.min(fileSize, SEGMENT_SIZE))
+            throw new IOException("Corrupt answer log: header length " + headerLength);
+        long count = start.getLong(COUNT_OFFSET);
+        if (count < 0 || count > fileSize - headerLength)
+            throw new IOException("Corrupt answer log: " + count + " answers in a file of " + fileSize + " bytes");
+
+        ByteBuffer header = read(channel, 0, headerLength);
+        int names = header.get(NAMES_OFFSET) & 0xFF;
+        int pos = NAMES_OFFSET + 1;
+        for (int i = 0; i < names; i++) {
+            if (pos >= headerLength || pos + 1 + (header.get(pos) & 0xFF) > headerLength)
+                throw new IOException("Corrupt answer log: name " + i + " runs past the header");
+            pos += 1 + (header.get(pos) & 0xFF);
+        }
+    }
+
+    // Read the given number of bytes from the given position, or fewer if the file ends before
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                break;
+        return buffer.flip();
+    }
+
+    private static void writeHeader(MappedByteBuffer header) {
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putLong(COUNT_OFFSET, 0);
+        header.put(NAMES_OFFSET, (byte) EnumConstants.ANSWERS.size());
+        int pos = NAMES_OFFSET + 1;
+        for (Answer a : EnumConstants.ANSWERS) {
+            byte[] name = a.name().getBytes(StandardCharsets.US_ASCII);
+            header.put(pos++, (byte) name.length);
+            header.put(pos, name);
+            pos += name.length;
+        }
+        header.putInt(HEADER_LENGTH_OFFSET, pos);
+    }
+
+    // Number of answers in the log
+    long size() {
+        return count;
+    }
+
+    void append(Answer answer) throws IOException {
+        ensureOpen();
+        byte number = numberOf[answer.ordinal()];
+        if (number < 0)
+            throw new IllegalArgumentException(answer + " is not part of this log's header");
+        long pos = dataStart + count;
+        segment(pos / SEGMENT_SIZE).put((int) (pos % SEGMENT_SIZE), number);
+        count++;
+        segments.get(0).putLong(COUNT_OFFSET, count);
+    }
+
+    // The answer at the given position in the log, or null if that answer no longer exists
+    // A number the header has no name for (a damaged file) is also returned as null
+    Answer get(long index) throws IOException {
+        ensureOpen();
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+        long pos = dataStart + index;
+        int number = segment(pos / SEGMENT_SIZE).get((int) (pos % SEGMENT_SIZE)) & 0xFF;
+        return number < answerOf.length ? answerOf[number] : null;
+    }
+
+    // Iterates the answers in the log in order, as far as they were written when iteration started
+    // An answer that no longer exists is returned as null
+    @Override
+    public Iterator<Answer> iterator() {
+        long end = count;
+        return new Iterator<Answer>() {
+            private long index;
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public Answer next() {
+                if (index >= end)
+                    throw new NoSuchElementException();
+                try {
+                    return get(index++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    // Write all changes to the storage device
+    void force() {
+        for (MappedByteBuffer segment : segments)
+            segment.force();
+    }
+
+    // Write all changes to the storage device, cut off the unused part of the last segment and close the file
+    // Closing an already closed log has no effect
+    // Note: the file stays mapped until the segments are garbage collected
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            force();
+            try {
+                channel.truncate(dataStart + count);
+            } catch (IOException e) {
+                // Some systems (Windows) don't allow shrinking a mapped file; the count in the header still
+                // tells how much of the file is in use, so the file simply stays larger
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Answer log is closed");
+    }
+
+    // Segment with the given number, mapping it (and growing the file) when first needed
+    private MappedByteBuffer segment(long number) throws IOException {
+        while (segments.size() <= number)
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * SEGMENT_SIZE, SEGMENT_SIZE));
+        return segments.get((int) number);
+    }
+}
@@ -0,0 +1,90 @@
+package com.pbe;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+// Buffered output of answers
+// Writing an answer copies its pre-encoded line (see Answer) into a reusable buffer,
+// which is only written to the channel when full or when flush() is called.
+// Writing answers allocates nothing. Not thread-safe: use one sink per thread.
+class AnswerSink implements Closeable {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean closeChannel; // whether close() also closes the channel
+    private boolean closed;
+
+    // Constructor - writes to the given channel (a FileChannel, for example), which is closed together with the sink
+    AnswerSink(WritableByteChannel channel, int capacity) {
+        this(channel, capacity, true);
+    }
+
+    private AnswerSink(WritableByteChannel channel, int capacity, boolean closeChannel) {
+        if (capacity < 16)
+            throw new IllegalArgumentException("Capacity too small: " + capacity);
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.closeChannel = closeChannel;
+    }
+
+    // Sink writing to standard output
+    // Closing this sink flushes it, but leaves standard output open
+    static AnswerSink stdout(int capacity) {
+        return new AnswerSink(Channels.newChannel(new FileOutputStream(FileDescriptor.out)), capacity, false);
+    }
+
+    // Add the line of an answer to the buffer
+    void write(Answer answer) throws IOException {
+        answer.handle(this);
+    }
+
+    // Add an encoded line to the buffer, writing the buffer out first if there's no room left
+    // A line longer than the whole buffer is written straight to the channel, after what's buffered before it
+    void write(byte[] line) throws IOException {
+        if (closed)
+            throw new IOException("Sink is closed");
+        if (buffer.remaining() < line.length)
+            drain();
+        if (line.length > buffer.capacity()) {
+            ByteBuffer whole = ByteBuffer.wrap(line);
+            while (whole.hasRemaining())
+                channel.write(whole);
+            return;
+        }
+        buffer.put(line);
+    }
+
+    // Write everything buffered so far to the channel
+    void flush() throws IOException {
+        if (closed)
+            throw new IOException("Sink is closed");
+        drain();
+    }
+
+    // Flush and, unless writing to standard output, close the channel
+    // Closing an already closed sink has no effect
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        try {
+            drain();
+        } finally {
+            closed = true;
+            if (closeChannel)
+                channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,115 @@
+package com.pbe;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Counts how often each answer was given
+// Each thread counts in its own long[], indexed by ordinal value, so recording needs no locking or boxing.
+// The arrays of all threads are only added up when counts are requested.
+// Counts read while other threads are still recording may lag slightly behind.
+class AnswerStatistics {
+
+    private final AnswerDistribution distribution; // distribution the counts are checked against
+    private final Queue<long[]> tallies = new ConcurrentLinkedQueue<>(); // one array per recording thread
+    private final ThreadLocal<long[]> tally = ThreadLocal.withInitial(this::newTally);
+
+    // Constructor - checks against the default distribution of Question
+    AnswerStatistics() {
+        this(AnswerDistribution.DEFAULT);
+    }
+
+    // Constructor - checks against the given distribution
+    AnswerStatistics(AnswerDistribution distribution) {
+        this.distribution = distribution;
+    }
+
+    private long[] newTally() {
+        long[] t = new long[EnumConstants.ANSWERS.size()];
+        tallies.add(t);
+        return t;
+    }
+
+    // Count a single answer
+    void record(Answer answer) {
+        tally.get()[answer.ordinal()]++;
+    }
+
+    // Count all answers in the array, as filled by Question.ask(Answer[])
+    void record(Answer[] answers) {
+        long[] t = tally.get();
+        for (Answer a : answers)
+            t[a.ordinal()]++;
+    }
+
+    // Count all ordinal values in the array, as filled by Question.ask(byte[])
+    void record(byte[] ordinals) {
+        long[] t = tally.get();
+        for (byte o : ordinals)
+            t[o]++;
+    }
+
+    // Number of times each answer was counted, indexed by ordinal value
+    long[] counts() {
+        long[] sum = new long[EnumConstants.ANSWERS.size()];
+        for (long[] t : tallies)
+            for (int i = 0; i < sum.length; i++)
+                sum[i] += t[i];
+        return sum;
+    }
+
+    // Same as above, as a map from answer to count
+    Map<Answer, Long> snapshot() {
+        long[] counts = counts();
+        Map<Answer, Long> map = new EnumMap<>(Answer.class);
+        for (int i = 0; i < counts.length; i++)
+            map.put(EnumConstants.ANSWERS.get(i), counts[i]);
+        return map;
+    }
+
+    long count(Answer answer) {
+        long sum = 0;
+        for (long[] t : tallies)
+            sum += t[answer.ordinal()];
+        return sum;
+    }
+
+    long total() {
+        long sum = 0;
+        for (long c : counts())
+            sum += c;
+        return sum;
+    }
+
+    // Share of all counted answers that were this answer, or 0 if nothing was counted yet
+    double frequency(Answer answer) {
+        long[] counts = counts();
+        long total = 0;
+        for (long c : counts)
+            total += c;
+        return total == 0 ? 0 : (double) counts[answer.ordinal()] / total;
+    }
+
+    // Pearson's chi-squared statistic of the counts against the distribution
+    // Answers with zero probability are left out, unless they were counted; then the result is infinite.
+    // Compare against the critical value for (number of answers with a probability above zero - 1) degrees of freedom.
+    double chiSquared() {
+        long[] counts = counts();
+        long total = 0;
+        for (long c : counts)
+            total += c;
+        double chi = 0;
+        for (int i = 0; i < counts.length; i++) {
+            double expected = total * distribution.probability(EnumConstants.ANSWERS.get(i));
+            if (expected == 0) {
+                if (counts[i] > 0)
+                    return Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double diff = counts[i] - expected;
+            chi += diff * diff / expected;
+        }
+        return chi;
+    }
+}
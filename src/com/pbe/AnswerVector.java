@@ -0,0 +1,117 @@
+package com.pbe;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Compact list of answers
+// There are only six answers, so an ordinal value fits in 3 bits. 21 of them are packed into each long,
+// about 0.4 byte per answer, compared to 4 or 8 bytes for each reference in an Answer[] or ArrayList<Answer>.
+// An answer never straddles two longs; the top bit of each long is unused.
+class AnswerVector implements Iterable<Answer> {
+
+    private static final int BITS = 3;
+    private static final int PER_WORD = 21; // 21 * 3 = 63 bits
+    private static final long MASK = (1L << BITS) - 1;
+    private static final long LOW_BITS = 0x1249249249249249L; // lowest bit of each of the 21 groups: 001 001 ... 001
+
+    private long[] words;
+    private long size;
+
+    // Constructor - starts with room for 1344 answers
+    AnswerVector() {
+        words = new long[64];
+    }
+
+    long size() {
+        return size;
+    }
+
+    void add(Answer answer) {
+        int word = (int) (size / PER_WORD);
+        if (word == words.length)
+            grow(word + 1);
+        words[word] |= (long) answer.ordinal() << (BITS * (int) (size % PER_WORD));
+        size++;
+    }
+
+    // Add answers[from] up to (not including) answers[to]
+    void addAll(Answer[] answers, int from, int to) {
+        grow((int) ((size + (to - from) + PER_WORD - 1) / PER_WORD));
+        for (int i = from; i < to; i++)
+            add(answers[i]);
+    }
+
+    // Add the ordinal values as filled by Question.ask(byte[])
+    void addAll(byte[] ordinals, int from, int to) {
+        grow((int) ((size + (to - from) + PER_WORD - 1) / PER_WORD));
+        for (int i = from; i < to; i++)
+            add(EnumConstants.ANSWERS.get(ordinals[i]));
+    }
+
+    Answer get(long index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        return EnumConstants.ANSWERS.get(ordinal(index));
+    }
+
+    private int ordinal(long index) {
+        return (int) ((words[(int) (index / PER_WORD)] >>> (BITS * (int) (index % PER_WORD))) & MASK);
+    }
+
+    // Number of times each answer occurs, indexed by ordinal value
+    // Instead of unpacking every answer, a whole long is compared to a value at once:
+    // XOR with the value repeated 21 times turns each matching group into 000; OR-ing the bits of each group
+    // together leaves a 1 for each group that doesn't match, so bitCount gives the number of mismatches.
+    long[] histogram() {
+        long[] counts = new long[EnumConstants.ANSWERS.size()];
+        int fullWords = (int) (size / PER_WORD);
+        int rest = (int) (size % PER_WORD);
+        for (int v = 0; v < counts.length; v++) {
+            long pattern = LOW_BITS * v;
+            long mismatches = 0;
+            for (int w = 0; w < fullWords; w++)
+                mismatches += Long.bitCount(groupsNotEqual(words[w] ^ pattern));
+            counts[v] = (long) fullWords * PER_WORD - mismatches;
+            if (rest > 0) {
+                long used = LOW_BITS & ((1L << (BITS * rest)) - 1); // ignore the empty groups after the last answer
+                counts[v] += rest - Long.bitCount(groupsNotEqual(words[fullWords] ^ pattern) & used);
+            }
+        }
+        return counts;
+    }
+
+    private static long groupsNotEqual(long x) {
+        return (x | (x >>> 1) | (x >>> 2)) & LOW_BITS;
+    }
+
+    // Iterates the answers in order
+    @Override
+    public Iterator<Answer> iterator() {
+        return new Iterator<Answer>() {
+            private long index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Answer next() {
+                if (index >= size)
+                    throw new NoSuchElementException();
+                return EnumConstants.ANSWERS.get(ordinal(index++));
+            }
+        };
+    }
+
+    // Make sure there's room for at least the given number of longs
+    private void grow(int minWords) {
+        if (minWords <= words.length)
+            return;
+        int newLength = (int) Math.min(Math.max((long) words.length * 2, minWords), Integer.MAX_VALUE - 8);
+        if (newLength < minWords)
+            throw new IllegalStateException("AnswerVector is full");
+        words = Arrays.copyOf(words, newLength);
+    }
+}
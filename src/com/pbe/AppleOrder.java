@@ -0,0 +1,52 @@
+package com.pbe;
+
+import com.pbe.Main.Apple;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Function;
+
+// Ordering of records by their apple variety, in the order the varieties are declared (their ordinal value)
+// Sorting is done by an EnumCountingSorter: in O(n) instead of O(n log n), keeping records of the same variety
+// in their original order.
+final class AppleOrder {
+
+    private static final EnumCountingSorter<Apple> SORTER = new EnumCountingSorter<>(Apple.class);
+
+    private AppleOrder() {
+    }
+
+    // Sort the records by the variety the key function gives for each of them
+    static <T> void sort(T[] records, Function<? super T, Apple> key) {
+        SORTER.sort(records, key);
+    }
+
+    // Same as above, for a list
+    static <T> void sort(List<T> records, Function<? super T, Apple> key) {
+        SORTER.sort(records, key);
+    }
+
+    // The varieties from one up to and including another, in declaration order, for example Junami..GoldenDelicious
+    static EnumSet<Apple> range(Apple from, Apple to) {
+        return EnumSet.range(from, to);
+    }
+
+    // View of the records with a variety from one up to and including another,
+    // in a list already sorted by variety; changes to the view are changes to the list
+    static <T> List<T> range(List<T> sorted, Function<? super T, Apple> key, Apple from, Apple to) {
+        return sorted.subList(firstAtLeast(sorted, key, from.ordinal()), firstAtLeast(sorted, key, to.ordinal() + 1));
+    }
+
+    // Position of the first record in the sorted list with at least the given ordinal value (binary search)
+    private static <T> int firstAtLeast(List<T> sorted, Function<? super T, Apple> key, int ordinal) {
+        int low = 0, high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key.apply(sorted.get(mid)).ordinal() < ordinal)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,97 @@
+package com.pbe;
+
+import com.pbe.Main.Bike;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Renders the listing of bike prices, as printed by Main: "Cube costs 2000 EUR"
+// Each bike's line is built once, as text and as bytes, and copied as is on every render,
+// so rendering allocates nothing. Each render checks whether the installed prices (see BikePrices) have changed
+// since the lines were built, and if so rebuilds them first.
+// Rendering is safe from many threads at once, also while prices are updated.
+class BikeCatalogRenderer {
+
+    // Lines of all bikes, in declaration order; replaced as a whole on refresh, so a render never sees a mix
+    private volatile Lines lines;
+
+    private static final class Lines {
+        final String[] text = new String[EnumConstants.BIKES.size()];
+        final byte[][] bytes = new byte[EnumConstants.BIKES.size()][];
+        int totalBytes;
+        BikePrices prices; // installed prices the lines were built from, null for the default prices
+        int version; // version of those prices
+    }
+
+    // Constructor - builds the lines from the current prices
+    BikeCatalogRenderer() {
+        refresh();
+    }
+
+    // Rebuild the lines from the current prices
+    // Renders do this by themselves when prices change, so there's normally no need to call it
+    void refresh() {
+        lines = build();
+    }
+
+    private static Lines build() {
+        Lines l = new Lines();
+        int[] prices = new int[EnumConstants.BIKES.size()];
+        l.prices = BikePrices.installed();
+        if (l.prices != null)
+            l.version = l.prices.snapshot(prices); // all prices from the same update
+        else
+            for (Bike b : EnumConstants.BIKES)
+                prices[b.ordinal()] = b.getDefaultPrice();
+
+        for (Bike b : EnumConstants.BIKES) {
+            String text = b + " costs " + prices[b.ordinal()] + " EUR" + System.lineSeparator();
+            l.text[b.ordinal()] = text;
+            l.bytes[b.ordinal()] = text.getBytes(StandardCharsets.US_ASCII);
+            l.totalBytes += l.bytes[b.ordinal()].length;
+        }
+        return l;
+    }
+
+    // The lines, rebuilt first if other prices were installed or the installed prices were updated
+    private Lines current() {
+        Lines l = lines;
+        BikePrices installed = BikePrices.installed();
+        if (l.prices != installed || (installed != null && installed.version() != l.version))
+            lines = l = build();
+        return l;
+    }
+
+    // Number of bytes render(ByteBuffer) writes
+    int size() {
+        return current().totalBytes;
+    }
+
+    // Write the lines of all bikes to the buffer
+    // Throws a BufferOverflowException, writing nothing, if the buffer hasn't enough room
+    void render(ByteBuffer out) {
+        Lines l = current();
+        if (out.remaining() < l.totalBytes)
+            throw new BufferOverflowException();
+        for (byte[] line : l.bytes)
+            out.put(line);
+    }
+
+    // Write the line of one bike to the buffer
+    void render(Bike bike, ByteBuffer out) {
+        out.put(current().bytes[bike.ordinal()]);
+    }
+
+    // Append the lines of all bikes, for example to a StringBuilder or Writer
+    void render(Appendable out) throws IOException {
+        for (String line : current().text)
+            out.append(line);
+    }
+
+    // Append the line of one bike
+    void render(Bike bike, Appendable out) throws IOException {
+        out.append(current().text[bike.ordinal()]);
+    }
+}
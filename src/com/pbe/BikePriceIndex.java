@@ -0,0 +1,116 @@
+package com.pbe;
+
+import com.pbe.Main.Bike;
+
+import java.util.EnumSet;
+
+// Index of bikes by their current price (see Bike.getPrice())
+// Keeps the prices sorted in an int[], with the bike of each price at the same position in a second array,
+// so price questions are answered with a binary search instead of a scan over Bike.values().
+// Each query checks whether the installed prices (see BikePrices) have changed since the index was built,
+// and if so rebuilds it first. The index for the default prices is built when the class is loaded.
+// Apart from the returned EnumSet (and a rebuild), queries allocate nothing. Safe from many threads at once.
+final class BikePriceIndex {
+
+    // Index in use; replaced as a whole on rebuild, so a query never sees a mix
+    private static volatile Snapshot snapshot = build();
+
+    private static final class Snapshot {
+        final int[] prices = new int[EnumConstants.BIKES.size()]; // sorted from cheap to expensive
+        final Bike[] bikes = new Bike[EnumConstants.BIKES.size()]; // bike with the price at the same position
+        BikePrices source; // installed prices the index was built from, null for the default prices
+        int version; // version of those prices
+    }
+
+    private BikePriceIndex() {
+    }
+
+    private static Snapshot build() {
+        Snapshot s = new Snapshot();
+        int[] byOrdinal = new int[EnumConstants.BIKES.size()];
+        s.source = BikePrices.installed();
+        if (s.source != null)
+            s.version = s.source.snapshot(byOrdinal); // all prices from the same update
+        else
+            for (Bike b : EnumConstants.BIKES)
+                byOrdinal[b.ordinal()] = b.getDefaultPrice();
+
+        // Insertion sort: there are only a few bikes, and bikes with equal prices stay in declaration order
+        for (int i = 0; i < byOrdinal.length; i++) {
+            Bike b = EnumConstants.BIKES.get(i);
+            int price = byOrdinal[b.ordinal()];
+            int j = i;
+            while (j > 0 && s.prices[j - 1] > price) {
+                s.prices[j] = s.prices[j - 1];
+                s.bikes[j] = s.bikes[j - 1];
+                j--;
+            }
+            s.prices[j] = price;
+            s.bikes[j] = b;
+        }
+        return s;
+    }
+
+    // The index, rebuilt first if other prices were installed or the installed prices were updated
+    private static Snapshot current() {
+        Snapshot s = snapshot;
+        BikePrices installed = BikePrices.installed();
+        if (s.source != installed || (installed != null && installed.version() != s.version))
+            snapshot = s = build();
+        return s;
+    }
+
+    // All bikes with a price from min up to and including max
+    static EnumSet<Bike> range(int min, int max) {
+        Snapshot s = current();
+        EnumSet<Bike> result = EnumSet.noneOf(Bike.class);
+        for (int i = firstAtLeast(s.prices, min); i < s.prices.length && s.prices[i] <= max; i++)
+            result.add(s.bikes[i]);
+        return result;
+    }
+
+    // The most expensive bike costing at most the given price, or null if all bikes cost more
+    static Bike floor(int price) {
+        Snapshot s = current();
+        int i = firstAtLeast(s.prices, price == Integer.MAX_VALUE ? price : price + 1) - 1;
+        return i >= 0 ? s.bikes[i] : null;
+    }
+
+    // The cheapest bike costing at least the given price, or null if all bikes cost less
+    static Bike ceiling(int price) {
+        Snapshot s = current();
+        int i = firstAtLeast(s.prices, price);
+        return i < s.prices.length ? s.bikes[i] : null;
+    }
+
+    // The k cheapest bikes (or all of them if there are fewer)
+    static EnumSet<Bike> cheapest(int k) {
+        Bike[] bikes = current().bikes;
+        EnumSet<Bike> result = EnumSet.noneOf(Bike.class);
+        for (int i = 0; i < Math.min(k, bikes.length); i++)
+            result.add(bikes[i]);
+        return result;
+    }
+
+    // The k most expensive bikes (or all of them if there are fewer)
+    static EnumSet<Bike> mostExpensive(int k) {
+        Bike[] bikes = current().bikes;
+        EnumSet<Bike> result = EnumSet.noneOf(Bike.class);
+        for (int i = bikes.length - 1; i >= Math.max(bikes.length - k, 0); i--)
+            result.add(bikes[i]);
+        return result;
+    }
+
+    // Position of the first price that is at least the given price (binary search)
+    private static int firstAtLeast(int[] prices, int price) {
+        int low = 0, high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < price)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
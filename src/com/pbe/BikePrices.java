@@ -0,0 +1,104 @@
+package com.pbe;
+
+import com.pbe.Main.Bike;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Current prices of the bikes, overriding the prices given to the constants of Bike
+// Once installed, Bike.getPrice() returns the price from here; uninstall to go back to the default prices.
+// Prices are kept in an int[] indexed by ordinal value and protected by a sequence lock:
+// the writer makes the version odd while updating and even again when done, and a reader simply
+// retries if the version changed (or was odd) while it was reading. Readers never lock or block the writer,
+// and always see either all or none of an update. Updates are made one at a time.
+class BikePrices {
+
+    private static volatile BikePrices installed; // overlay used by Bike.getPrice(), if any
+
+    private final int[] prices = new int[EnumConstants.BIKES.size()];
+    private final AtomicInteger version = new AtomicInteger(); // odd while an update is in progress
+
+    // Constructor - starts with the default prices
+    BikePrices() {
+        for (Bike b : EnumConstants.BIKES)
+            prices[b.ordinal()] = b.getDefaultPrice();
+    }
+
+    // Use the given prices for Bike.getPrice()
+    static void install(BikePrices prices) {
+        installed = prices;
+    }
+
+    // Go back to the default prices
+    static void uninstall() {
+        installed = null;
+    }
+
+    // Getter - the installed prices, or null if the default prices are used
+    static BikePrices installed() {
+        return installed;
+    }
+
+    // Current price of a bike
+    int get(Bike bike) {
+        while (true) {
+            int before = version.get();
+            int price = prices[bike.ordinal()];
+            VarHandle.loadLoadFence();
+            if ((before & 1) == 0 && version.get() == before)
+                return price;
+            Thread.onSpinWait();
+        }
+    }
+
+    // Copy the current prices of all bikes into the array, indexed by ordinal value
+    // All prices are from the same moment: no update is ever seen halfway
+    // Returns the version the prices belong to (see version())
+    int snapshot(int[] dest) {
+        while (true) {
+            int before = version.get();
+            System.arraycopy(prices, 0, dest, 0, prices.length);
+            VarHandle.loadLoadFence();
+            if ((before & 1) == 0 && version.get() == before)
+                return before;
+            Thread.onSpinWait();
+        }
+    }
+
+    // Getter - changes with every update, so a reader can tell whether prices changed since it last looked
+    int version() {
+        return version.get();
+    }
+
+    // Same as above, into a new array
+    int[] snapshot() {
+        int[] dest = new int[prices.length];
+        snapshot(dest);
+        return dest;
+    }
+
+    // Change the price of one bike
+    synchronized void set(Bike bike, int price) {
+        beginUpdate();
+        prices[bike.ordinal()] = price;
+        endUpdate();
+    }
+
+    // Change the prices of all bikes at once, given by ordinal value
+    synchronized void setAll(int[] newPrices) {
+        if (newPrices.length != prices.length)
+            throw new IllegalArgumentException("Expected " + prices.length + " prices, got " + newPrices.length);
+        beginUpdate();
+        System.arraycopy(newPrices, 0, prices, 0, prices.length);
+        endUpdate();
+    }
+
+    private void beginUpdate() {
+        version.incrementAndGet(); // now odd
+        VarHandle.storeStoreFence(); // the odd version is visible before any of the new prices
+    }
+
+    private void endUpdate() {
+        version.incrementAndGet(); // even again, and publishes the new prices
+    }
+}
@@ -0,0 +1,63 @@
+package com.pbe;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// The decision maker from Main as an in-process service
+// Each request is handled on its own thread, which asks the question and responds with the name of the answer.
+// On Java 21 and later that is a virtual thread, so tens of thousands of requests can be in progress at once;
+// on older versions a cached pool of platform threads is used instead.
+// The question must be safe to ask from many threads at once, so only questions with a thread-safe
+// generator type (GeneratorType.RANDOM, as java.util.Random is thread-safe) are accepted.
+class DecisionService implements AutoCloseable {
+
+    private final Question question;
+    private final ExecutorService executor;
+
+    // Constructor - answers requests with the given question
+    DecisionService(Question question) {
+        this(checkThreadSafe(question), newThreadPerTaskExecutor()); // checked before the executor is created
+    }
+
+    // Constructor - answers requests with the given question, on threads of the given executor
+    DecisionService(Question question, ExecutorService executor) {
+        this.question = checkThreadSafe(question);
+        this.executor = executor;
+    }
+
+    private static Question checkThreadSafe(Question question) {
+        if (!question.getGeneratorType().threadSafe())
+            throw new IllegalArgumentException("Question with a " + question.getGeneratorType()
+                    + " generator can't be asked from many threads at once");
+        return question;
+    }
+
+    // Handle a request: completes with the name of the answer
+    CompletableFuture<String> request() {
+        return CompletableFuture.supplyAsync(() -> question.ask().name(), executor);
+    }
+
+    // Stop accepting requests and wait for those in progress to complete
+    // If the waiting thread is interrupted, it stops waiting and keeps its interrupt status
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Virtual thread per task when the Java version has them, otherwise a cached pool of platform threads
+    // Looked up by reflection, as the project targets Java 17 (see README.md), which has no virtual threads
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
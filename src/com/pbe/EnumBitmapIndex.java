@@ -0,0 +1,51 @@
+package com.pbe;
+
+import java.util.EnumSet;
+
+// Bitmap index over a column of enum values: for each constant, the set of rows holding it
+// Rows are numbered in the order they're added. Queries over several columns are answered by combining
+// the bitmaps of the columns, for example (Failed OR Pending) AND Kanzi AND NOT NEVER:
+//   errorCodes.anyOf(EnumSet.of(Failed, Pending)).and(apples.of(Kanzi)).andNot(answers.of(NEVER))
+// Add all rows before querying: the results may share chunks with the index.
+// Once built, queries can run from any number of threads.
+final class EnumBitmapIndex<E extends Enum<E>> {
+
+    private final RowBitmap[] bitmaps; // indexed by ordinal value
+    private int rows;
+
+    // Constructor - index for a column of the given enumeration
+    EnumBitmapIndex(Class<E> enumClass) {
+        bitmaps = new RowBitmap[enumClass.getEnumConstants().length];
+        for (int i = 0; i < bitmaps.length; i++)
+            bitmaps[i] = new RowBitmap();
+    }
+
+    // Add the value of the next row; returns the row number
+    int add(E value) {
+        bitmaps[value.ordinal()].add(rows);
+        return rows++;
+    }
+
+    // Number of rows added
+    int rows() {
+        return rows;
+    }
+
+    // Rows holding the given constant
+    RowBitmap of(E value) {
+        return bitmaps[value.ordinal()];
+    }
+
+    // Rows holding any of the given constants
+    RowBitmap anyOf(EnumSet<E> values) {
+        RowBitmap result = new RowBitmap();
+        for (E value : values)
+            result = result.or(bitmaps[value.ordinal()]);
+        return result;
+    }
+
+    // Rows holding none of the given constants
+    RowBitmap noneOf(EnumSet<E> values) {
+        return anyOf(EnumSet.complementOf(values));
+    }
+}
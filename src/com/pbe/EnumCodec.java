@@ -0,0 +1,142 @@
+package com.pbe;
+
+import com.pbe.Main.Apple;
+import com.pbe.Main.Bike;
+import com.pbe.Main.ErrorCode;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+// Binary encoding of enum constants, by ordinal value instead of by name
+// Two forms are offered:
+// 1. variable width - each ordinal as 7 bits per byte, the highest bit telling whether another byte follows
+//    (any enum with up to 128 constants takes a single byte per value)
+// 2. packed - values written back to back using just enough bits for the largest ordinal (2 bits for ErrorCode)
+// Ordinal values change when constants are reordered, so both sides should compare fingerprint() first:
+// it's a hash of the names of the constants, in order.
+// Encoding and decoding read and write the given buffers only, and allocate nothing.
+final class EnumCodec<E extends Enum<E>> {
+
+    static final EnumCodec<ErrorCode> ERROR_CODE = new EnumCodec<>(ErrorCode.class);
+    static final EnumCodec<Answer> ANSWER = new EnumCodec<>(Answer.class);
+    static final EnumCodec<Apple> APPLE = new EnumCodec<>(Apple.class);
+    static final EnumCodec<Bike> BIKE = new EnumCodec<>(Bike.class);
+
+    private final E[] constants;
+    private final int bits; // bits per value in packed form
+    private final long fingerprint;
+
+    // Constructor - codec for the constants of the given enumeration
+    EnumCodec(Class<E> enumClass) {
+        constants = enumClass.getEnumConstants();
+        bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(constants.length - 1));
+        // 64-bit FNV-1a hash of the names, each followed by a 0 separator
+        long h = 0xcbf29ce484222325L;
+        for (E e : constants) {
+            String name = e.name();
+            for (int i = 0; i <= name.length(); i++) {
+                h ^= i < name.length() ? name.charAt(i) : 0;
+                h *= 0x100000001b3L;
+            }
+        }
+        fingerprint = h;
+    }
+
+    // Getter - hash of the names of the constants, in order
+    long fingerprint() {
+        return fingerprint;
+    }
+
+    // Getter - bits used per value in packed form
+    int bitsPerValue() {
+        return bits;
+    }
+
+    // **********************
+    // Variable width
+    // **********************
+
+    void encode(E value, ByteBuffer out) {
+        int ordinal = value.ordinal();
+        while (ordinal >= 0x80) {
+            out.put((byte) (ordinal | 0x80));
+            ordinal >>>= 7;
+        }
+        out.put((byte) ordinal);
+    }
+
+    // Returns null if the ordinal value doesn't belong to a constant
+    // Also returns null for malformed input: more than 5 bytes, or a value that doesn't fit a positive int.
+    // In that case the rest of the value's bytes, after the one where the problem showed, are left unread.
+    E decode(ByteBuffer in) {
+        int ordinal = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            if (shift == 28 && (b & 0xFF) > 0x07)
+                return null; // the fifth byte may only hold the last 3 bits of a positive int
+            ordinal |= (b & 0x7F) << shift;
+            if (b >= 0)
+                break;
+        }
+        return ordinal < constants.length ? constants[ordinal] : null;
+    }
+
+    void encode(E[] values, int from, int to, ByteBuffer out) {
+        for (int i = from; i < to; i++)
+            encode(values[i], out);
+    }
+
+    void decode(ByteBuffer in, E[] values, int from, int to) {
+        for (int i = from; i < to; i++)
+            values[i] = decode(in);
+    }
+
+    // **********************
+    // Packed
+    // **********************
+
+    // Number of bytes the given number of values takes in packed form
+    int packedSize(int count) {
+        return (int) (((long) count * bits + 7) / 8);
+    }
+
+    // Write values[from] up to (not including) values[to], lowest bits first
+    void encodePacked(E[] values, int from, int to, ByteBuffer out) {
+        if (out.remaining() < packedSize(to - from))
+            throw new BufferOverflowException();
+        long acc = 0; // bits waiting to be written
+        int pending = 0; // number of bits in acc
+        for (int i = from; i < to; i++) {
+            acc |= (long) values[i].ordinal() << pending;
+            pending += bits;
+            while (pending >= 8) {
+                out.put((byte) acc);
+                acc >>>= 8;
+                pending -= 8;
+            }
+        }
+        if (pending > 0)
+            out.put((byte) acc);
+    }
+
+    // Read values as written by encodePacked() into values[from] up to (not including) values[to]
+    // An ordinal value that doesn't belong to a constant is read as null
+    void decodePacked(ByteBuffer in, E[] values, int from, int to) {
+        if (in.remaining() < packedSize(to - from))
+            throw new BufferUnderflowException();
+        long mask = (1L << bits) - 1;
+        long acc = 0;
+        int available = 0;
+        for (int i = from; i < to; i++) {
+            while (available < bits) {
+                acc |= (in.get() & 0xFFL) << available;
+                available += 8;
+            }
+            int ordinal = (int) (acc & mask);
+            values[i] = ordinal < constants.length ? constants[ordinal] : null;
+            acc >>>= bits;
+            available -= bits;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.pbe;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+// Collectors that group stream elements by an enum key
+// Like Collectors.groupingBy(), but the groups are kept in an array indexed by ordinal value instead of a HashMap,
+// so no hashing is done per element. Counting uses a long[] per ordinal value, so no Long is boxed per element.
+// In a parallel stream each thread groups its own part and the parts are merged at the end, keeping the order.
+final class EnumCollectors {
+
+    private EnumCollectors() {
+    }
+
+    // Group the elements by key, keeping their order in each group
+    // Only constants that occur get an entry in the map
+    static <T, E extends Enum<E>> Collector<T, ?, EnumMap<E, List<T>>> groupingBy(
+            Class<E> enumClass, Function<? super T, E> key) {
+        E[] constants = enumClass.getEnumConstants();
+        return Collector.<T, List<T>[], EnumMap<E, List<T>>>of(
+                () -> newArray(constants.length),
+                (groups, t) -> {
+                    int i = key.apply(t).ordinal();
+                    if (groups[i] == null)
+                        groups[i] = new ArrayList<>();
+                    groups[i].add(t);
+                },
+                (left, right) -> {
+                    for (int i = 0; i < left.length; i++) {
+                        if (left[i] == null)
+                            left[i] = right[i];
+                        else if (right[i] != null)
+                            left[i].addAll(right[i]);
+                    }
+                    return left;
+                },
+                groups -> {
+                    EnumMap<E, List<T>> map = new EnumMap<>(enumClass);
+                    for (int i = 0; i < groups.length; i++)
+                        if (groups[i] != null)
+                            map.put(constants[i], groups[i]);
+                    return map;
+                });
+    }
+
+    // Same as above, but in a parallel stream all threads add to the same groups, so there's nothing to merge
+    // The order of the elements in each group is not kept
+    static <T, E extends Enum<E>> Collector<T, ?, EnumMap<E, List<T>>> groupingByConcurrent(
+            Class<E> enumClass, Function<? super T, E> key) {
+        E[] constants = enumClass.getEnumConstants();
+        return Collector.<T, Queue<T>[], EnumMap<E, List<T>>>of(
+                () -> {
+                    Queue<T>[] groups = newQueues(constants.length);
+                    for (int i = 0; i < groups.length; i++)
+                        groups[i] = new ConcurrentLinkedQueue<>();
+                    return groups;
+                },
+                (groups, t) -> groups[key.apply(t).ordinal()].add(t),
+                (left, right) -> {
+                    for (int i = 0; i < left.length; i++)
+                        left[i].addAll(right[i]);
+                    return left;
+                },
+                groups -> {
+                    EnumMap<E, List<T>> map = new EnumMap<>(enumClass);
+                    for (int i = 0; i < groups.length; i++)
+                        if (!groups[i].isEmpty())
+                            map.put(constants[i], new ArrayList<>(groups[i]));
+                    return map;
+                },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    // Count the elements per key, as an array indexed by ordinal value
+    static <T, E extends Enum<E>> Collector<T, ?, long[]> counting(Class<E> enumClass, Function<? super T, E> key) {
+        int constants = enumClass.getEnumConstants().length;
+        return Collector.<T, long[]>of(
+                () -> new long[constants],
+                (counts, t) -> counts[key.apply(t).ordinal()]++,
+                (left, right) -> {
+                    for (int i = 0; i < left.length; i++)
+                        left[i] += right[i];
+                    return left;
+                },
+                Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T>[] newArray(int length) {
+        return (List<T>[]) new List<?>[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Queue<T>[] newQueues(int length) {
+        return (Queue<T>[]) new Queue<?>[length];
+    }
+}
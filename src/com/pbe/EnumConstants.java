@@ -0,0 +1,22 @@
+package com.pbe;
+
+import com.pbe.Main.Apple;
+import com.pbe.Main.Bike;
+import com.pbe.Main.ErrorCode;
+
+import java.util.List;
+
+// Shared, read-only copies of the constants of each enumeration
+// Every call to values() returns a new clone of the enum's array, because an array can't be made read-only.
+// These lists are created once and can't be changed, so hot loops can iterate them as often as they like.
+// Looping by index (get(i)) allocates nothing; the for-each form creates an iterator, which the JIT usually removes.
+final class EnumConstants {
+
+    static final List<ErrorCode> ERROR_CODES = List.of(ErrorCode.values());
+    static final List<Bike> BIKES = List.of(Bike.values());
+    static final List<Apple> APPLES = List.of(Apple.values());
+    static final List<Answer> ANSWERS = List.of(Answer.values());
+
+    private EnumConstants() {
+    }
+}
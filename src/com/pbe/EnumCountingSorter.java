@@ -0,0 +1,100 @@
+package com.pbe;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+// Sorts records by an enum key, in the order the constants are declared (their ordinal value)
+// Enums have few constants, so instead of comparing records to each other, the records are counted per
+// constant and then placed directly in their spot (counting sort): O(n + k) for n records and k constants.
+// Records with the same key keep their original order (the sort is stable).
+final class EnumCountingSorter<E extends Enum<E>> {
+
+    private static final int MIN_PARALLEL_CHUNK = 1 << 14; // fewer records per thread than this isn't worth it
+
+    private final int constants; // number of constants of the enum
+
+    // Constructor - sorter for keys of the given enumeration
+    EnumCountingSorter(Class<E> enumClass) {
+        constants = enumClass.getEnumConstants().length;
+    }
+
+    // Sort the records by the constant the key function gives for each of them
+    <T> void sort(T[] records, Function<? super T, E> key) {
+        T[] source = Arrays.copyOf(records, records.length);
+        // Count the records of each constant, then turn the counts into the position of each constant's first record
+        int[] next = new int[constants + 1];
+        for (T record : source)
+            next[key.apply(record).ordinal() + 1]++;
+        for (int i = 1; i < next.length; i++)
+            next[i] += next[i - 1];
+        for (T record : source)
+            records[next[key.apply(record).ordinal()]++] = record;
+    }
+
+    // Same as above, for a list
+    <T> void sort(List<T> records, Function<? super T, E> key) {
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) records.toArray();
+        sort(array, key);
+        copyBack(array, records);
+    }
+
+    // Sort the records by the constant the key function gives for each of them, using all processors
+    // The records are split into chunks, one or more per thread. Each chunk counts its own records per constant;
+    // from these counts each chunk knows exactly where its records go, so all chunks can place them at the same time.
+    // The key function is called from several threads at once.
+    <T> void parallelSort(T[] records, Function<? super T, E> key) {
+        int chunks = (int) Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, records.length / MIN_PARALLEL_CHUNK);
+        if (chunks < 2) {
+            sort(records, key);
+            return;
+        }
+        T[] source = Arrays.copyOf(records, records.length);
+        int chunkSize = (records.length + chunks - 1) / chunks;
+
+        // next[c][k]: number of records with constant k in chunk c, and once placing starts, the next slot for them
+        int[][] next = new int[chunks][constants];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] counts = next[c];
+            for (int i = c * chunkSize, end = Math.min(i + chunkSize, source.length); i < end; i++)
+                counts[key.apply(source[i]).ordinal()]++;
+        });
+
+        // Prefix sum, by constant first and by chunk second: chunk c's records of constant k go after
+        // all records of lower constants, and after the records of constant k in chunks before c
+        int position = 0;
+        for (int k = 0; k < constants; k++) {
+            for (int c = 0; c < chunks; c++) {
+                int count = next[c][k];
+                next[c][k] = position;
+                position += count;
+            }
+        }
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] slots = next[c];
+            for (int i = c * chunkSize, end = Math.min(i + chunkSize, source.length); i < end; i++)
+                records[slots[key.apply(source[i]).ordinal()]++] = source[i];
+        });
+    }
+
+    // Same as above, for a list
+    <T> void parallelSort(List<T> records, Function<? super T, E> key) {
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) records.toArray();
+        parallelSort(array, key);
+        copyBack(array, records);
+    }
+
+    private static <T> void copyBack(T[] array, List<T> records) {
+        ListIterator<T> it = records.listIterator();
+        for (T record : array) {
+            it.next();
+            it.set(record);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.pbe;
+
+import com.pbe.Main.Apple;
+import com.pbe.Main.Bike;
+import com.pbe.Main.ErrorCode;
+
+// Looks up enum constants by name, like valueOf(), but straight from a slice of characters or (ASCII) bytes
+// Picks the only possible candidate by first character and length, then compares the rest of the name once.
+// No String is created, and an unknown name returns null instead of throwing an IllegalArgumentException.
+final class EnumDecoder {
+
+    private EnumDecoder() {
+    }
+
+    // **********************
+    // ErrorCode: Success, Failed, Pending
+    // **********************
+
+    static ErrorCode errorCode(CharSequence s, int from, int to) {
+        return from < to ? verify(errorCode(s.charAt(from)), s, from, to) : null;
+    }
+
+    static ErrorCode errorCode(byte[] b, int from, int to) {
+        return from < to ? verify(errorCode((char) b[from]), b, from, to) : null;
+    }
+
+    private static ErrorCode errorCode(char first) {
+        switch (first) {
+            case 'S': return ErrorCode.Success;
+            case 'F': return ErrorCode.Failed;
+            case 'P': return ErrorCode.Pending;
+            default: return null;
+        }
+    }
+
+    // **********************
+    // Bike: Cube, Bianche, Sensa
+    // **********************
+
+    static Bike bike(CharSequence s, int from, int to) {
+        return from < to ? verify(bike(s.charAt(from)), s, from, to) : null;
+    }
+
+    static Bike bike(byte[] b, int from, int to) {
+        return from < to ? verify(bike((char) b[from]), b, from, to) : null;
+    }
+
+    private static Bike bike(char first) {
+        switch (first) {
+            case 'C': return Bike.Cube;
+            case 'B': return Bike.Bianche;
+            case 'S': return Bike.Sensa;
+            default: return null;
+        }
+    }
+
+    // **********************
+    // Apple: Elstar, Junami, Kanzi, GoldenDelicious, Goudreinet
+    // **********************
+
+    static Apple apple(CharSequence s, int from, int to) {
+        return from < to ? verify(apple(s.charAt(from), to - from), s, from, to) : null;
+    }
+
+    static Apple apple(byte[] b, int from, int to) {
+        return from < to ? verify(apple((char) b[from], to - from), b, from, to) : null;
+    }
+
+    private static Apple apple(char first, int length) {
+        switch (first) {
+            case 'E': return Apple.Elstar;
+            case 'J': return Apple.Junami;
+            case 'K': return Apple.Kanzi;
+            case 'G': return length == 15 ? Apple.GoldenDelicious : Apple.Goudreinet;
+            default: return null;
+        }
+    }
+
+    // **********************
+    // Answer: NO, YES, MAYBE, LATER, SOON, NEVER
+    // **********************
+
+    static Answer answer(CharSequence s, int from, int to) {
+        return from < to ? verify(answer(s.charAt(from), to - from), s, from, to) : null;
+    }
+
+    static Answer answer(byte[] b, int from, int to) {
+        return from < to ? verify(answer((char) b[from], to - from), b, from, to) : null;
+    }
+
+    private static Answer answer(char first, int length) {
+        switch (first) {
+            case 'N': return length == 2 ? Answer.NO : Answer.NEVER;
+            case 'Y': return Answer.YES;
+            case 'M': return Answer.MAYBE;
+            case 'L': return Answer.LATER;
+            case 'S': return Answer.SOON;
+            default: return null;
+        }
+    }
+
+    // Return the candidate if its name matches the slice exactly, otherwise null
+    private static <E extends Enum<E>> E verify(E candidate, CharSequence s, int from, int to) {
+        if (candidate == null)
+            return null;
+        String name = candidate.name();
+        if (name.length() != to - from)
+            return null;
+        for (int i = 1; i < name.length(); i++) // first character already matched
+            if (s.charAt(from + i) != name.charAt(i))
+                return null;
+        return candidate;
+    }
+
+    private static <E extends Enum<E>> E verify(E candidate, byte[] b, int from, int to) {
+        if (candidate == null)
+            return null;
+        String name = candidate.name();
+        if (name.length() != to - from)
+            return null;
+        for (int i = 1; i < name.length(); i++)
+            if (b[from + i] != name.charAt(i))
+                return null;
+        return candidate;
+    }
+}
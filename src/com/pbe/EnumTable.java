@@ -0,0 +1,245 @@
+package com.pbe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Table of rows with a value of an enumeration in each column, stored column by column
+// Each column holds one ordinal value per byte instead of a reference per value. The rows are divided in chunks
+// of 4096; for each chunk and column the number of rows per constant is kept.
+//
+// Scans take conditions on the columns and visit only the rows that meet all of them. Each chunk of rows
+// is first checked against the counts of its columns: a chunk in which no row can meet a condition is skipped,
+// and a condition every row of a chunk meets is not checked row by row. The rest is checked
+// a whole column at a time, keeping the result as one bit per row.
+//
+// The table creates its columns and is the only one adding values to them, so all columns always have one value
+// per row. Not thread-safe while rows are added; once built, scans can run from any number of threads.
+final class EnumTable {
+
+    static final int CHUNK_BITS = 12;
+    static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+
+    private final List<Column<?>> columns = new ArrayList<>();
+    private int rows;
+
+    // Add a column for values of the given enumeration (with at most 128 constants), before any rows are added
+    // For example: Column<ErrorCode> errorCodes = table.addColumn(ErrorCode.class)
+    <E extends Enum<E>> Column<E> addColumn(Class<E> enumClass) {
+        if (rows > 0)
+            throw new IllegalStateException("Columns must be added before rows");
+        Column<E> column = new Column<>(enumClass);
+        columns.add(column);
+        return column;
+    }
+
+    // Add a row, with a value for each column in order
+    // If a value doesn't belong to its column's enumeration, nothing is added
+    void addRow(Enum<?>... values) {
+        if (values.length != columns.size())
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+        for (int i = 0; i < values.length; i++)
+            if (!columns.get(i).enumClass.isInstance(values[i]))
+                throw new IllegalArgumentException("Value " + values[i] + " for column " + i + " is not a "
+                        + columns.get(i).enumClass.getSimpleName());
+        for (int i = 0; i < values.length; i++)
+            columns.get(i).add(values[i]);
+        rows++;
+    }
+
+    // Number of rows
+    int rows() {
+        return rows;
+    }
+
+    // Number of rows meeting all conditions
+    long count(Condition... conditions) {
+        long[] count = new long[1];
+        scan(conditions, (chunkStart, chunkRows, selection) -> {
+            if (selection == null) {
+                count[0] += chunkRows;
+            } else {
+                for (long w : selection)
+                    count[0] += Long.bitCount(w);
+            }
+        });
+        return count[0];
+    }
+
+    // Call the action for each row meeting all conditions, in ascending order
+    void forEach(IntConsumer action, Condition... conditions) {
+        scan(conditions, (chunkStart, chunkRows, selection) -> {
+            if (selection == null) {
+                for (int r = 0; r < chunkRows; r++)
+                    action.accept(chunkStart + r);
+                return;
+            }
+            for (int w = 0; w < selection.length; w++) {
+                long word = selection[w];
+                while (word != 0) {
+                    action.accept(chunkStart + (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1; // clear lowest set bit
+                }
+            }
+        });
+    }
+
+    // Receives the selected rows of a chunk: null if all its rows are selected, otherwise one bit per row
+    private interface ChunkVisitor {
+        void visit(int chunkStart, int chunkRows, long[] selection);
+    }
+
+    private void scan(Condition[] conditions, ChunkVisitor visitor) {
+        for (Condition condition : conditions)
+            if (condition.column.table != this)
+                throw new IllegalArgumentException("Condition on a column of another table");
+
+        long[] selection = new long[CHUNK_ROWS / 64];
+        Condition[] pending = new Condition[conditions.length];
+        int chunks = (rows + CHUNK_ROWS - 1) >>> CHUNK_BITS;
+        chunkLoop:
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int chunkStart = chunk << CHUNK_BITS;
+            int chunkRows = Math.min(CHUNK_ROWS, rows - chunkStart);
+
+            // Use the counts to skip the chunk, or to leave out conditions that hold for all its rows
+            int n = 0;
+            for (Condition condition : conditions) {
+                int matches = condition.matches(chunk);
+                if (matches == 0)
+                    continue chunkLoop;
+                if (matches < chunkRows)
+                    pending[n++] = condition;
+            }
+            if (n == 0) {
+                visitor.visit(chunkStart, chunkRows, null);
+                continue;
+            }
+
+            int words = (chunkRows + 63) >>> 6;
+            Arrays.fill(selection, 0, words, -1L);
+            for (int i = 0; i < n; i++)
+                pending[i].filter(chunkStart, chunkRows, selection);
+            visitor.visit(chunkStart, chunkRows, words == selection.length ? selection : Arrays.copyOf(selection, words));
+        }
+    }
+
+    // Column of a table, created by addColumn()
+    // Values are only added through the table's addRow(), which keeps all columns the same length
+    final class Column<E extends Enum<E>> {
+        private final EnumTable table = EnumTable.this;
+        private final Class<E> enumClass;
+        private final E[] constants;
+        private byte[] ordinals = new byte[CHUNK_ROWS];
+        private int[][] counts = new int[1][]; // per chunk, the number of rows per ordinal value
+        private int size;
+
+        private Column(Class<E> enumClass) {
+            this.enumClass = enumClass;
+            constants = enumClass.getEnumConstants();
+            if (constants.length > Byte.MAX_VALUE + 1)
+                throw new IllegalArgumentException(enumClass.getSimpleName() + " has too many constants for a byte");
+        }
+
+        // Add a value at the end of the column; its type has already been checked by addRow()
+        private void add(Enum<?> value) {
+            if (size == ordinals.length)
+                ordinals = Arrays.copyOf(ordinals, ordinals.length * 2);
+            int chunk = size >>> CHUNK_BITS;
+            if (chunk == counts.length)
+                counts = Arrays.copyOf(counts, counts.length * 2);
+            if (counts[chunk] == null)
+                counts[chunk] = new int[constants.length];
+            ordinals[size++] = (byte) value.ordinal();
+            counts[chunk][value.ordinal()]++;
+        }
+
+        E get(int row) {
+            if (row < 0 || row >= size)
+                throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+            return constants[ordinals[row]];
+        }
+
+        // Number of rows
+        int size() {
+            return size;
+        }
+
+        // Number of chunks holding rows
+        int chunks() {
+            return (size + CHUNK_ROWS - 1) >>> CHUNK_BITS;
+        }
+
+        // Number of rows in the chunk holding the given constant
+        int count(int chunk, E value) {
+            return counts[chunk][value.ordinal()];
+        }
+
+        // Lowest and highest constant (by ordinal value) in the chunk
+        E min(int chunk) {
+            int[] c = counts[chunk];
+            int i = 0;
+            while (c[i] == 0)
+                i++;
+            return constants[i];
+        }
+
+        E max(int chunk) {
+            int[] c = counts[chunk];
+            int i = c.length - 1;
+            while (c[i] == 0)
+                i--;
+            return constants[i];
+        }
+
+        // Condition: the row's value is one of the given constants
+        Condition in(EnumSet<E> values) {
+            boolean[] accepted = new boolean[constants.length];
+            for (E value : values)
+                accepted[value.ordinal()] = true;
+            return new Condition(this, accepted);
+        }
+
+        // Condition: the row's value is the given constant
+        Condition is(E value) {
+            return in(EnumSet.of(value));
+        }
+    }
+
+    // Condition on the value of a column, as a table of accepted ordinal values
+    static final class Condition {
+        private final Column<?> column;
+        private final boolean[] accepted;
+
+        private Condition(Column<?> column, boolean[] accepted) {
+            this.column = column;
+            this.accepted = accepted;
+        }
+
+        // Number of rows in the chunk that meet the condition, from the chunk's counts alone
+        private int matches(int chunk) {
+            int[] c = column.counts[chunk];
+            int n = 0;
+            for (int i = 0; i < c.length; i++)
+                if (accepted[i])
+                    n += c[i];
+            return n;
+        }
+
+        // Clear the bits in selection (one per row, starting at row from) of the rows that don't meet the condition
+        // Looks up each row's ordinal value in the accepted table, without branching on the values
+        private void filter(int from, int rows, long[] selection) {
+            byte[] ordinals = column.ordinals;
+            for (int w = 0; w < (rows + 63) >>> 6; w++) {
+                long keep = 0;
+                int base = from + (w << 6);
+                int end = Math.min(64, rows - (w << 6));
+                for (int b = 0; b < end; b++)
+                    keep |= (accepted[ordinals[base + b]] ? 1L : 0L) << b;
+                selection[w] &= keep;
+            }
+        }
+    }
+}
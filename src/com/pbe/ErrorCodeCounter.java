@@ -0,0 +1,52 @@
+package com.pbe;
+
+import com.pbe.Main.ErrorCode;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts error codes reported by many threads at once
+// Each error code has its own LongAdder, indexed by ordinal value. Under contention a LongAdder spreads
+// its updates over padded cells, one per group of threads, instead of making them all retry on one value.
+class ErrorCodeCounter {
+
+    private final LongAdder[] counters = new LongAdder[EnumConstants.ERROR_CODES.size()];
+
+    // Constructor - all counters start at zero
+    ErrorCodeCounter() {
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = new LongAdder();
+    }
+
+    void increment(ErrorCode code) {
+        counters[code.ordinal()].increment();
+    }
+
+    void add(ErrorCode code, long n) {
+        counters[code.ordinal()].add(n);
+    }
+
+    // Current count of one error code
+    long get(ErrorCode code) {
+        return counters[code.ordinal()].sum();
+    }
+
+    // Current count of each error code
+    // Updates made while the snapshot is taken may or may not be included
+    Map<ErrorCode, Long> snapshot() {
+        Map<ErrorCode, Long> map = new EnumMap<>(ErrorCode.class);
+        for (ErrorCode code : EnumConstants.ERROR_CODES)
+            map.put(code, counters[code.ordinal()].sum());
+        return map;
+    }
+
+    // Current count of each error code, after which all counters are set back to zero
+    // Updates made while resetting are either included here or kept for the next call, never lost
+    Map<ErrorCode, Long> resetAndGet() {
+        Map<ErrorCode, Long> map = new EnumMap<>(ErrorCode.class);
+        for (ErrorCode code : EnumConstants.ERROR_CODES)
+            map.put(code, counters[code.ordinal()].sumThenReset());
+        return map;
+    }
+}
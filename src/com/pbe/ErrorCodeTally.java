@@ -0,0 +1,67 @@
+package com.pbe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Counts error codes in bulk, given as one ordinal value per byte
+// Instead of one byte at a time, 8 bytes are read as a long and compared to a value all at once
+// ("SIMD within a register"), four longs per loop iteration. Bytes that aren't an ErrorCode ordinal are not counted.
+final class ErrorCodeTally {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L; // 1 in every byte
+    private static final long LOW_7 = 0x7F7F7F7F7F7F7F7FL; // all bits but the highest of every byte
+
+    private ErrorCodeTally() {
+    }
+
+    // Number of times each error code occurs in ordinals[from] up to (not including) ordinals[to], indexed by ordinal
+    static long[] count(byte[] ordinals, int from, int to) {
+        long[] counts = new long[EnumConstants.ERROR_CODES.size()];
+        int i = from;
+        for (; i + 32 <= to; i += 32) {
+            long w0 = (long) LONGS.get(ordinals, i), w1 = (long) LONGS.get(ordinals, i + 8);
+            long w2 = (long) LONGS.get(ordinals, i + 16), w3 = (long) LONGS.get(ordinals, i + 24);
+            for (int v = 0; v < counts.length; v++)
+                counts[v] += matches(w0, v) + matches(w1, v) + matches(w2, v) + matches(w3, v);
+        }
+        for (; i < to; i++)
+            countOne(counts, ordinals[i]);
+        return counts;
+    }
+
+    // Number of times each error code occurs between the buffer's position and limit, indexed by ordinal
+    // The buffer's position is not changed
+    static long[] count(ByteBuffer ordinals) {
+        if (ordinals.hasArray())
+            return count(ordinals.array(), ordinals.arrayOffset() + ordinals.position(),
+                    ordinals.arrayOffset() + ordinals.limit());
+
+        long[] counts = new long[EnumConstants.ERROR_CODES.size()];
+        ByteBuffer b = ordinals.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int i = b.position(), to = b.limit();
+        for (; i + 32 <= to; i += 32) {
+            long w0 = b.getLong(i), w1 = b.getLong(i + 8), w2 = b.getLong(i + 16), w3 = b.getLong(i + 24);
+            for (int v = 0; v < counts.length; v++)
+                counts[v] += matches(w0, v) + matches(w1, v) + matches(w2, v) + matches(w3, v);
+        }
+        for (; i < to; i++)
+            countOne(counts, b.get(i));
+        return counts;
+    }
+
+    // Number of bytes in the word equal to the value
+    // XOR turns matching bytes into zero; the expression below then sets the highest bit of exactly the zero bytes
+    private static int matches(long word, int value) {
+        long x = word ^ (ONES * value);
+        long zeroBytes = ~(((x & LOW_7) + LOW_7) | x | LOW_7);
+        return Long.bitCount(zeroBytes);
+    }
+
+    private static void countOne(long[] counts, byte ordinal) {
+        if (ordinal >= 0 && ordinal < counts.length)
+            counts[ordinal]++;
+    }
+}
@@ -0,0 +1,100 @@
+package com.pbe;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+// Enumeration of the random number generators a Question can use
+// Each constant knows how to create its generator from a seed, and how to create one that starts
+// a number of answers further into the same sequence (every answer takes exactly one nextDouble()).
+enum GeneratorType {
+
+    // java.util.Random: thread-safe, but threads asking at the same time contend on its seed
+    // Skipping ahead is a jump of the underlying linear congruential generator, in O(log n) steps
+    RANDOM(true, true) {
+        RandomGenerator create(long seed) {
+            return new Random(seed);
+        }
+
+        RandomGenerator createAt(long seed, long answers) {
+            // Each nextDouble() takes two steps of the generator; Random(s) starts from state s ^ MULTIPLIER
+            long state = jump((seed ^ MULTIPLIER) & MASK, 2 * answers);
+            return new Random(state ^ MULTIPLIER);
+        }
+    },
+
+    // java.util.SplittableRandom: not thread-safe, fast
+    // Its state simply moves by a fixed step per number, so skipping ahead takes one multiplication
+    SPLITTABLE(false, true) {
+        RandomGenerator create(long seed) {
+            return new SplittableRandom(seed);
+        }
+
+        RandomGenerator createAt(long seed, long answers) {
+            return new SplittableRandom(seed + answers * GOLDEN_GAMMA);
+        }
+    },
+
+    // Xoshiro256++ from java.util.random: not thread-safe, fast, long period
+    // It can only jump by fixed, huge distances, so skipping ahead generates and discards the skipped numbers
+    XOSHIRO(false, false) {
+        RandomGenerator create(long seed) {
+            return RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(seed);
+        }
+    };
+
+    private static final long MULTIPLIER = 0x5DEECE66DL; // constants of java.util.Random
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; // step of java.util.SplittableRandom
+
+    private final boolean threadSafe; // whether one generator can be used from many threads at once
+    private final boolean skipsCheaply; // whether createAt() is fast, whatever the number of answers skipped
+
+    // Constructor - called once for each constant
+    GeneratorType(boolean t, boolean s) {
+        threadSafe = t;
+        skipsCheaply = s;
+    }
+
+    // Getter - whether a Question with this generator can be asked from many threads at once
+    boolean threadSafe() {
+        return threadSafe;
+    }
+
+    // Getter - whether skipping ahead takes (about) constant time
+    boolean skipsCheaply() {
+        return skipsCheaply;
+    }
+
+    // Create a generator from the given seed
+    abstract RandomGenerator create(long seed);
+
+    // Create a generator that continues where the one from create(seed) would be after the given number of answers
+    RandomGenerator createAt(long seed, long answers) {
+        RandomGenerator g = create(seed);
+        for (long i = 0; i < answers; i++)
+            g.nextDouble();
+        return g;
+    }
+
+    // State of java.util.Random after the given number of steps (state = state * MULTIPLIER + ADDEND)
+    // Combines the steps by repeated squaring, as in "Random number generation with arbitrary strides" (F. Brown, 1994)
+    // The steps are taken as unsigned: a count that overflowed to a negative long still gives the right jump,
+    // since the state only has 48 bits
+    private static long jump(long state, long steps) {
+        long mult = 1, plus = 0; // the combined step so far
+        long curMult = MULTIPLIER, curPlus = ADDEND; // a single step, doubled each round
+        while (steps != 0) {
+            if ((steps & 1) != 0) {
+                mult = (mult * curMult) & MASK;
+                plus = (plus * curMult + curPlus) & MASK;
+            }
+            curPlus = ((curMult + 1) * curPlus) & MASK;
+            curMult = (curMult * curMult) & MASK;
+            steps >>>= 1;
+        }
+        return (mult * state + plus) & MASK;
+    }
+}
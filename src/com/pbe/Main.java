@@ -1,5 +1,6 @@
 package com.pbe;
 
+import java.io.IOException;
 import java.util.Random;
 
 /** Study on Java Enumerations
@@ -91,7 +92,14 @@ public class Main {
         }
 
         // Getter - can be called for each constant, getting the price of that specific constant
+        // When current prices are installed (see BikePrices), the price is taken from there
         int getPrice() {
+            BikePrices current = BikePrices.installed();
+            return current == null ? price : current.get(this);
+        }
+
+        // Getter - the price as set by the constructor
+        int getDefaultPrice() {
             return price;
         }
     }
@@ -146,6 +154,12 @@ public class Main {
             System.out.println(x);
         System.out.println();
 
+        // Note that each call to values() creates a new copy of the array
+        // In loops that run often, iterate a shared read-only list instead
+        for (int i = 0; i < EnumConstants.ERROR_CODES.size(); i++)
+            System.out.println(i + ": " + EnumConstants.ERROR_CODES.get(i));
+        System.out.println();
+
         sc = ErrorCode.valueOf("Failed"); // using valueOf()
         System.out.println("sc contains: " + sc + "\n");
 
@@ -207,6 +221,14 @@ public class Main {
         answer(q.ask());
         answer(q.ask());
         answer(q.ask());
+
+        // Same, but collecting the answers in a buffered sink that writes them out in one go when closed
+        try (AnswerSink sink = AnswerSink.stdout(1024)) {
+            for (int i = 0; i < 4; i++)
+                sink.write(q.ask());
+        } catch (IOException e) {
+            System.out.println("Could not write answers: " + e.getMessage());
+        }
     }
 
     // **********************
@@ -214,26 +236,8 @@ public class Main {
     // **********************
 
     // Prints a result depending on the received enum constant
+    // Each constant carries its own label, so no switch is needed to pick the text to print
     static void answer(Answer result) {
-        switch (result) {
-            case NO:
-                System.out.println("No");
-                break;
-            case YES:
-                System.out.println("Yes");
-                break;
-            case MAYBE:
-                System.out.println("Maybe");
-                break;
-            case LATER:
-                System.out.println("Later");
-                break;
-            case SOON:
-                System.out.println("Soon");
-                break;
-            case NEVER:
-                System.out.println("Never");
-                break;
-        }
+        System.out.println(result.getLabel());
     }
 }
\ No newline at end of file
@@ -1,32 +1,213 @@
 package com.pbe;
 
-import java.util.Random;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // enumeration of possible answers
 enum Answer {
-    NO, YES, MAYBE, LATER, SOON, NEVER
+    // Each constant carries the label that is printed for it
+    NO("No"), YES("Yes"), MAYBE("Maybe"), LATER("Later"), SOON("Soon"), NEVER("Never");
+
+    private final String label;
+    private final byte[] line; // label followed by a line separator, encoded once
+
+    // Constructor - called once for each constant
+    Answer(String l) {
+        label = l;
+        line = (l + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Getter - the label of this answer
+    String getLabel() {
+        return label;
+    }
+
+    // Write the line of this answer to the sink
+    // The same method serves every constant, so a call site always has a single target the JIT can inline
+    void handle(AnswerSink sink) throws IOException {
+        sink.write(line);
+    }
 }
 
 // Constructor
 public class Question {
 
-    // Create an object of type Random
-    Random rand = new Random();
+    private final long seed; // seed of the sequence of answers
+    private final GeneratorType generatorType;
+
+    // Random number generator the answers of ask() are taken from
+    // Volatile, so threads asking see the generator skipTo() put in its place
+    volatile RandomGenerator rand;
+
+    // Distribution the answers are drawn from
+    final AnswerDistribution distribution;
+
+    // Constructor - uses the default distribution of answers and a java.util.Random with a random seed
+    // The seed can be obtained with getSeed(), to replay the same answers later
+    Question() {
+        this(ThreadLocalRandom.current().nextLong(), GeneratorType.RANDOM, AnswerDistribution.DEFAULT);
+    }
+
+    // Constructor - uses the given distribution of answers and a java.util.Random with a random seed
+    Question(AnswerDistribution distribution) {
+        this(ThreadLocalRandom.current().nextLong(), GeneratorType.RANDOM, distribution);
+    }
+
+    // Constructor - the same seed, generator type and distribution always give the same sequence of answers
+    Question(long seed, GeneratorType generatorType, AnswerDistribution distribution) {
+        this.seed = seed;
+        this.generatorType = generatorType;
+        this.distribution = distribution;
+        this.rand = generatorType.create(seed);
+    }
+
+    // Getter - the seed of the sequence of answers
+    long getSeed() {
+        return seed;
+    }
+
+    // Getter - the type of random number generator the answers are taken from
+    GeneratorType getGeneratorType() {
+        return generatorType;
+    }
+
+    // Continue the sequence at the given answer (counting from 0), as if the answers before it were asked
+    // This lets workers replaying a long sequence each start at their own part of it
+    // Not thread-safe: don't call while other threads are asking
+    void skipTo(long answer) {
+        if (answer < 0)
+            throw new IllegalArgumentException("Negative answer number: " + answer);
+        rand = generatorType.createAt(seed, answer);
+    }
+
+    // Stream of the first count answers of the seeded sequence, the same answers a new Question
+    // with this seed would give; asking this question (or skipping) doesn't affect it
+    // The stream knows its size, and in a parallel stream each part creates its own generator, starting at
+    // its own position in the sequence. This only splits for generator types that can skip ahead cheaply.
+    Stream<Answer> answers(long count) {
+        return StreamSupport.stream(spliterator(count), false);
+    }
+
+    // Spliterator over the same answers as above
+    Spliterator<Answer> spliterator(long count) {
+        if (count < 0)
+            throw new IllegalArgumentException("Negative count: " + count);
+        return new Answers(0, count);
+    }
+
+    // Same as above, as ordinal values
+    IntStream ordinals(long count) {
+        if (count < 0)
+            throw new IllegalArgumentException("Negative count: " + count);
+        return StreamSupport.intStream(new Ordinals(0, count), false);
+    }
 
     // Generate a random number and depending on the number return a certain enum constant
     Answer ask() {
-        int prob = (int) (100 * rand.nextDouble());
-        if (prob < 15)
-            return Answer.MAYBE;
-        else if (prob < 30)
-            return Answer.NO;
-        else if (prob < 60)
-            return Answer.YES;
-        else if (prob < 75)
-            return Answer.LATER;
-        else if (prob < 98)
-            return Answer.YES;
-        else
-            return Answer.NEVER;
-    }
-}
\ No newline at end of file
+        return distribution.sample(rand);
+    }
+
+    // Fill the given array with answers
+    // Uses the calling thread's own generator instead of the shared rand,
+    // so many threads can fill their batches at the same time without contending on one seed
+    // Note: these answers are not part of the seeded sequence, and can't be replayed
+    void ask(Answer[] answers) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < answers.length; i++)
+            answers[i] = distribution.sample(random);
+    }
+
+    // Same as above, but stores the ordinal value of each answer instead of the constant itself
+    void ask(byte[] ordinals) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < ordinals.length; i++)
+            ordinals[i] = (byte) distribution.sample(random).ordinal();
+    }
+
+    // Part of the seeded sequence, from answer index up to (not including) answer end
+    // Its generator is only created when the first answer is needed, so splitting is cheap
+    private abstract class Range {
+        long index;
+        final long end;
+        private RandomGenerator generator;
+
+        Range(long index, long end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        // Ordinal value of the next answer
+        int next() {
+            if (generator == null)
+                generator = generatorType.createAt(seed, index);
+            index++;
+            return distribution.sample(generator).ordinal();
+        }
+
+        // Take the first half of what's left, returning where it starts, or -1 if this range can't be split
+        long splitOff() {
+            if (generator != null || !generatorType.skipsCheaply() || end - index < 2)
+                return -1;
+            long start = index;
+            index = start + (end - start) / 2;
+            return start;
+        }
+
+        public long estimateSize() {
+            return end - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+        }
+    }
+
+    private class Answers extends Range implements Spliterator<Answer> {
+        Answers(long index, long end) {
+            super(index, end);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Answer> action) {
+            if (index >= end)
+                return false;
+            action.accept(EnumConstants.ANSWERS.get(next()));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Answer> trySplit() {
+            long start = splitOff();
+            return start < 0 ? null : new Answers(start, index);
+        }
+    }
+
+    private class Ordinals extends Range implements Spliterator.OfInt {
+        Ordinals(long index, long end) {
+            super(index, end);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= end)
+                return false;
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long start = splitOff();
+            return start < 0 ? null : new Ordinals(start, index);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.pbe;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// Set of row numbers, as a compressed bitmap
+// The rows are divided in chunks of 65536, as in Roaring bitmaps. A chunk without rows takes no memory and
+// a chunk with all rows is shared; only other chunks hold a long[1024] with one bit per row.
+// and(), or() and andNot() combine two bitmaps 64 rows at a time, skipping empty and full chunks where possible.
+// Large bitmaps are combined in parallel, one chunk per task.
+// Combining creates a new bitmap; bitmaps are not changed after they're built, and can be shared by threads.
+final class RowBitmap {
+
+    static final int CHUNK_BITS = 16;
+    static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+    private static final int WORDS = CHUNK_ROWS / 64;
+    private static final long[] FULL = filled(); // shared by all chunks that contain every row
+    private static final int MIN_PARALLEL_CHUNKS = 16;
+
+    private long[][] chunks; // null for a chunk without rows
+
+    RowBitmap() {
+        this(new long[0][]);
+    }
+
+    private RowBitmap(long[][] chunks) {
+        this.chunks = chunks;
+    }
+
+    // Add a row; only for building the bitmap, before it's used for queries or shared
+    void add(int row) {
+        int c = row >>> CHUNK_BITS;
+        if (c >= chunks.length)
+            chunks = Arrays.copyOf(chunks, Math.max(c + 1, chunks.length * 2));
+        long[] words = chunks[c];
+        if (words == null)
+            words = chunks[c] = new long[WORDS];
+        else if (words == FULL)
+            return;
+        words[(row & (CHUNK_ROWS - 1)) >>> 6] |= 1L << row;
+    }
+
+    boolean contains(int row) {
+        int c = row >>> CHUNK_BITS;
+        if (row < 0 || c >= chunks.length || chunks[c] == null)
+            return false;
+        return (chunks[c][(row & (CHUNK_ROWS - 1)) >>> 6] & (1L << row)) != 0;
+    }
+
+    // Number of rows in the set
+    long cardinality() {
+        long count = 0;
+        for (long[] words : chunks) {
+            if (words == FULL)
+                count += CHUNK_ROWS;
+            else if (words != null)
+                for (long w : words)
+                    count += Long.bitCount(w);
+        }
+        return count;
+    }
+
+    // Call the action for each row in the set, in ascending order
+    void forEach(IntConsumer action) {
+        for (int c = 0; c < chunks.length; c++) {
+            long[] words = chunks[c];
+            if (words == null)
+                continue;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept((c << CHUNK_BITS) | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1; // clear lowest set bit
+                }
+            }
+        }
+    }
+
+    // Rows in both sets
+    RowBitmap and(RowBitmap other) {
+        int n = Math.min(chunks.length, other.chunks.length);
+        long[][] result = new long[n][];
+        forEachChunk(n, c -> {
+            long[] a = chunks[c], b = other.chunks[c];
+            if (a == null || b == null)
+                return;
+            if (a == FULL || b == FULL) {
+                result[c] = a == FULL ? b : a;
+                return;
+            }
+            long[] words = new long[WORDS];
+            for (int w = 0; w < WORDS; w++)
+                words[w] = a[w] & b[w];
+            result[c] = compact(words);
+        });
+        return new RowBitmap(result);
+    }
+
+    // Rows in either set
+    RowBitmap or(RowBitmap other) {
+        int n = Math.max(chunks.length, other.chunks.length);
+        long[][] result = new long[n][];
+        forEachChunk(n, c -> {
+            long[] a = c < chunks.length ? chunks[c] : null, b = c < other.chunks.length ? other.chunks[c] : null;
+            if (a == null || b == null || a == FULL || b == FULL) {
+                result[c] = a == FULL || b == FULL ? FULL : (a == null ? b : a);
+                return;
+            }
+            long[] words = new long[WORDS];
+            for (int w = 0; w < WORDS; w++)
+                words[w] = a[w] | b[w];
+            result[c] = compact(words);
+        });
+        return new RowBitmap(result);
+    }
+
+    // Rows in this set, but not in the other
+    RowBitmap andNot(RowBitmap other) {
+        int n = chunks.length;
+        long[][] result = new long[n][];
+        forEachChunk(n, c -> {
+            long[] a = chunks[c], b = c < other.chunks.length ? other.chunks[c] : null;
+            if (a == null || b == FULL)
+                return;
+            if (b == null) {
+                result[c] = a;
+                return;
+            }
+            long[] words = new long[WORDS];
+            for (int w = 0; w < WORDS; w++)
+                words[w] = a[w] & ~b[w];
+            result[c] = compact(words);
+        });
+        return new RowBitmap(result);
+    }
+
+    // Rows 0 up to (not including) the given number of rows
+    static RowBitmap allRows(int rows) {
+        int full = rows >>> CHUNK_BITS, rest = rows & (CHUNK_ROWS - 1);
+        long[][] chunks = new long[full + (rest > 0 ? 1 : 0)][];
+        Arrays.fill(chunks, 0, full, FULL);
+        if (rest > 0) {
+            long[] words = new long[WORDS];
+            Arrays.fill(words, 0, rest >>> 6, -1L);
+            if ((rest & 63) != 0)
+                words[rest >>> 6] = (1L << rest) - 1;
+            chunks[full] = words;
+        }
+        return new RowBitmap(chunks);
+    }
+
+    // Run the action for chunks 0 to n, in parallel for large bitmaps
+    private static void forEachChunk(int n, IntConsumer action) {
+        IntStream chunks = IntStream.range(0, n);
+        (n >= MIN_PARALLEL_CHUNKS ? chunks.parallel() : chunks).forEach(action);
+    }
+
+    // The chunk as it should be stored: null if empty, FULL if all rows are set
+    private static long[] compact(long[] words) {
+        long and = -1L, or = 0;
+        for (long w : words) {
+            and &= w;
+            or |= w;
+        }
+        return or == 0 ? null : and == -1L ? FULL : words;
+    }
+
+    private static long[] filled() {
+        long[] words = new long[WORDS];
+        Arrays.fill(words, -1L);
+        return words;
+    }
+}
@@ -0,0 +1,134 @@
+package com.pbe;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Runs a large number of questions in parallel and counts the answers (a Monte Carlo simulation)
+// The trials are split in halves until small enough, and the halves are run as tasks in a ForkJoinPool.
+// Each split gets its own SplittableRandom, split off its parent, so tasks never share a generator,
+// and each task counts in its own long[] indexed by ordinal value. The counts are added up as tasks finish.
+// Only the distribution and seed of the question are used: the trials draw from their own SplittableRandoms,
+// whatever the question's generator type, so the counts are not those of asking the question itself.
+class SimulationRunner {
+
+    private static final long TRIALS_PER_TASK = 1 << 20; // split no further than this
+
+    private final AnswerDistribution distribution;
+    private final long seed; // seed used by run(trials)
+    private final ForkJoinPool pool;
+
+    // Constructor - draws from the distribution of the given question, seeded with its seed, using the common pool
+    SimulationRunner(Question question) {
+        this(question, ForkJoinPool.commonPool());
+    }
+
+    // Constructor - draws from the distribution of the given question, seeded with its seed, using the given pool
+    SimulationRunner(Question question, ForkJoinPool pool) {
+        this.distribution = question.distribution;
+        this.seed = question.getSeed();
+        this.pool = pool;
+    }
+
+    // Run the given number of trials, seeded with the question's seed
+    // Runs for questions with the same seed and distribution give the same counts
+    Result run(long trials) {
+        return run(trials, seed);
+    }
+
+    // Run the given number of trials, with the given seed instead of the question's
+    // The same seed gives the same counts, however many threads the pool has
+    Result run(long trials, long seed) {
+        if (trials < 0)
+            throw new IllegalArgumentException("Negative number of trials: " + trials);
+        long start = System.nanoTime();
+        long[] counts = pool.invoke(new Trials(trials, new SplittableRandom(seed)));
+        return new Result(counts, trials, System.nanoTime() - start);
+    }
+
+    private class Trials extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long trials;
+        private final SplittableRandom random;
+
+        Trials(long trials, SplittableRandom random) {
+            this.trials = trials;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (trials <= TRIALS_PER_TASK) {
+                long[] counts = new long[EnumConstants.ANSWERS.size()];
+                for (long i = 0; i < trials; i++)
+                    counts[distribution.sample(random).ordinal()]++;
+                return counts;
+            }
+            long half = trials / 2;
+            Trials first = new Trials(half, random.split());
+            Trials second = new Trials(trials - half, random);
+            first.fork();
+            long[] counts = second.compute();
+            long[] other = first.join();
+            for (int i = 0; i < counts.length; i++)
+                counts[i] += other[i];
+            return counts;
+        }
+    }
+
+    // Outcome of a simulation run
+    static class Result {
+        private static final double Z_95 = 1.959964; // 95% of a normal distribution lies within this many standard deviations
+
+        private final long[] counts;
+        private final long trials;
+        private final long nanos;
+
+        Result(long[] counts, long trials, long nanos) {
+            this.counts = counts;
+            this.trials = trials;
+            this.nanos = nanos;
+        }
+
+        long trials() {
+            return trials;
+        }
+
+        long count(Answer answer) {
+            return counts[answer.ordinal()];
+        }
+
+        double frequency(Answer answer) {
+            return trials == 0 ? 0 : (double) counts[answer.ordinal()] / trials;
+        }
+
+        double trialsPerSecond() {
+            return nanos == 0 ? 0 : trials * 1e9 / nanos;
+        }
+
+        // Bounds of the 95% confidence interval of the probability of an answer (normal approximation)
+        double lowerBound(Answer answer) {
+            return Math.max(0, frequency(answer) - margin(answer));
+        }
+
+        double upperBound(Answer answer) {
+            return Math.min(1, frequency(answer) + margin(answer));
+        }
+
+        private double margin(Answer answer) {
+            double p = frequency(answer);
+            return trials == 0 ? 0 : Z_95 * Math.sqrt(p * (1 - p) / trials);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d trials, %.0f trials/sec%n", trials, trialsPerSecond()));
+            for (Answer a : EnumConstants.ANSWERS)
+                sb.append(String.format("%-6s %12d  %.5f [%.5f, %.5f]%n",
+                        a, count(a), frequency(a), lowerBound(a), upperBound(a)));
+            return sb.toString();
+        }
+    }
+}